@@ -0,0 +1,80 @@
+package br.com.spyrun;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe BenchmarkWorlds
+ * Monta mundos determinísticos (sementes fixas) para os benchmarks,
+ * de modo que os resultados possam ser comparados entre builds.
+ */
+final class BenchmarkWorlds {
+
+    // Semente usada em todos os cenários
+    static final long SEMENTE = 42L;
+
+    // Dimensões da área visível usada nos benchmarks
+    static final int VIEW_WIDTH = 960;
+    static final int VIEW_HEIGHT = 640;
+
+    // Duração de um tick da simulação
+    static final double FIXED_DELTA = 1.0 / 60.0;
+
+    // Raio livre de obstáculos ao redor do centro do mundo (onde fica o player)
+    private static final double RAIO_LIVRE = 120;
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * Gera um mapa com objetos de tamanho de mesa em posições aleatórias,
+     * mantendo livre a região central do mundo.
+     * @param quantidade quantidade de objetos do mapa
+     */
+    static OfficeMap mapaAleatorio(int quantidade) {
+        Random random = new Random(SEMENTE);
+        List<MapObject> objetos = new ArrayList<>();
+        double centroX = GameWorld.WORLD_WIDTH / 2.0;
+        double centroY = GameWorld.WORLD_HEIGHT / 2.0;
+        while (objetos.size() < quantidade) {
+            double x = random.nextDouble() * (GameWorld.WORLD_WIDTH - 150);
+            double y = random.nextDouble() * (GameWorld.WORLD_HEIGHT - 80);
+            boolean cobreCentro = x - RAIO_LIVRE < centroX && x + 150 + RAIO_LIVRE > centroX
+                    && y - RAIO_LIVRE < centroY && y + 80 + RAIO_LIVRE > centroY;
+            if (!cobreCentro) {
+                objetos.add(new MapObject(x, y, 150, 80, 0xFF8B4513));
+            }
+        }
+        return new OfficeMap(objetos);
+    }
+
+    /**
+     * Cria um mundo com o mapa informado e uma quantidade de inimigos extras.
+     */
+    static GameWorld mundo(OfficeMap mapa, int inimigos) {
+        GameWorld world = new GameWorld(mapa, VIEW_WIDTH, VIEW_HEIGHT, new Random(SEMENTE));
+        for (int i = 0; i < inimigos; i++) {
+            world.spawnEnemy();
+        }
+        return world;
+    }
+
+    /**
+     * Dispara balas em posições e direções aleatórias, metade do player
+     * e metade dos inimigos. A posição anterior fica um tick atrás, para
+     * que a colisão contínua teste um trecho de tamanho real.
+     */
+    static void preencherBalas(BulletPool bullets, int quantidade) {
+        Random random = new Random(SEMENTE + 1);
+        for (int i = 0; i < quantidade; i++) {
+            double x = random.nextDouble() * GameWorld.WORLD_WIDTH;
+            double y = random.nextDouble() * GameWorld.WORLD_HEIGHT;
+            double angulo = random.nextDouble() * Math.PI * 2;
+            Shooter dono = (i % 2 == 0) ? Shooter.PLAYER : Shooter.ENEMY;
+            int b = bullets.spawn(x, y, Math.cos(angulo), Math.sin(angulo), dono);
+            bullets.prevX[b] = x - bullets.vx[b] * FIXED_DELTA;
+            bullets.prevY[b] = y - bullets.vy[b] * FIXED_DELTA;
+        }
+    }
+}
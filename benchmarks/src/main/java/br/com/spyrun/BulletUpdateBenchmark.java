@@ -0,0 +1,48 @@
+package br.com.spyrun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o laço de atualização das balas (BulletPool.update).
+ * A idade das balas é zerada a cada chamada para que nenhuma
+ * expire durante a medição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BulletUpdateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int balas;
+
+    private BulletPool bullets;
+
+    @Setup
+    public void setup() {
+        bullets = new BulletPool(balas);
+        BenchmarkWorlds.preencherBalas(bullets, balas);
+    }
+
+    @Benchmark
+    public double atualizarBalas() {
+        Arrays.fill(bullets.age, 0, bullets.size(), 0);
+        bullets.update(BenchmarkWorlds.FIXED_DELTA);
+        return bullets.x[0];
+    }
+}
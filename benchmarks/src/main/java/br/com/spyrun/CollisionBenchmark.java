@@ -0,0 +1,61 @@
+package br.com.spyrun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede GameWorld.checarColisoes (balas contra mapa, inimigos e
+ * jogador, ao longo do trecho de um tick) com diferentes densidades
+ * de inimigos e balas. Antes de cada chamada, vidas e flags de
+ * balas/inimigos são restaurados para que todas as medições
+ * processem o mesmo cenário (esse custo linear entra na medição).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CollisionBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int inimigos;
+
+    @Param({"100", "1000", "4000"})
+    public int balas;
+
+    private GameWorld world;
+    private EnemyStore enemies;
+    private BulletPool bullets;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorlds.mundo(OfficeMap.criarEscritorioPadrao(), inimigos);
+        enemies = world.getInimigos();
+        bullets = world.getBullets();
+        BenchmarkWorlds.preencherBalas(bullets, balas);
+    }
+
+    @Benchmark
+    public boolean checarColisoes() {
+        Arrays.fill(enemies.alive, 0, enemies.size(), true);
+        Arrays.fill(enemies.health, 0, enemies.size(), EnemyStore.VIDA_INICIAL);
+        Arrays.fill(bullets.alive, 0, bullets.size(), true);
+        world.getPlayer().health = Player.VIDA_MAXIMA;
+
+        world.checarColisoes();
+        return world.isGameOver();
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.spyrun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de mover uma entidade contra o mapa
+ * (GameWorld.moverInimigo) com quantidades
+ * crescentes de objetos do mapa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MovementBenchmark {
+
+    @Param({"6", "100", "1000"})
+    public int objetosDoMapa;
+
+    private GameWorld world;
+    private int enemy;
+
+    // Passo alternado para que a entidade oscile sem sair da região livre
+    private double passo = 1;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorlds.mundo(BenchmarkWorlds.mapaAleatorio(objetosDoMapa), 0);
+        enemy = world.adicionarInimigo(GameWorld.WORLD_WIDTH / 2.0, GameWorld.WORLD_HEIGHT / 2.0);
+    }
+
+    @Benchmark
+    public double moverEntidade() {
+        world.moverInimigo(enemy, passo, passo);
+        passo = -passo;
+        return world.getInimigos().x[enemy];
+    }
+}
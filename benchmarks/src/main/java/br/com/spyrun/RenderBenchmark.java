@@ -0,0 +1,72 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.Canvas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a cópia do estado visível para um WorldSnapshot (feita pela
+ * thread da simulação a cada tick) e uma passada de desenho desse
+ * snapshot (GameRenderer.desenhar) em um canvas fora da cena, pelo
+ * mesmo caminho do jogo: blocos do MapLayerCache para o mapa e camada
+ * de entidades composta em software pelo SpriteBatch. Só o envio da
+ * camada para a textura muda (SpriteBatch.ENVIO_DIRETO), porque o
+ * PixelBuffer exige a thread do JavaFX; sem janela, os comandos do
+ * canvas são apenas gravados no buffer dele.
+ * Com escala 0.5 o frame inteiro, chão incluído, é composto na camada
+ * reduzida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RenderBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int inimigos;
+
+    @Param({"1000"})
+    public int balas;
+
+    @Param({"1", "0.5"})
+    public double escala;
+
+    private GameWorld world;
+    private GameRenderer renderer;
+    private WorldSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorlds.mundo(OfficeMap.criarEscritorioPadrao(), inimigos);
+        BenchmarkWorlds.preencherBalas(world.getBullets(), balas);
+        Canvas canvas = new Canvas(BenchmarkWorlds.VIEW_WIDTH, BenchmarkWorlds.VIEW_HEIGHT);
+        renderer = new GameRenderer(canvas.getGraphicsContext2D(), BenchmarkWorlds.VIEW_WIDTH, BenchmarkWorlds.VIEW_HEIGHT,
+                escala, SpriteBatch.ENVIO_DIRETO);
+        snapshot = new WorldSnapshot();
+        snapshot.capturar(world, BenchmarkWorlds.VIEW_WIDTH, BenchmarkWorlds.VIEW_HEIGHT);
+    }
+
+    @Benchmark
+    public WorldSnapshot capturar() {
+        snapshot.capturar(world, BenchmarkWorlds.VIEW_WIDTH, BenchmarkWorlds.VIEW_HEIGHT);
+        return snapshot;
+    }
+
+    @Benchmark
+    public void desenhar() {
+        renderer.desenhar(snapshot, 1.0);
+    }
+}
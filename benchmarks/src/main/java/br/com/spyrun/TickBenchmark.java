@@ -0,0 +1,54 @@
+package br.com.spyrun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede um tick completo da simulação (GameWorld.atualizar) para
+ * acompanhar o custo por entidade ao longo do tempo. O mundo é
+ * recriado a cada iteração para que a população não cresça sem
+ * controle durante a medição. O parâmetro lod liga ou desliga o nível
+ * de detalhe da IA dos inimigos distantes da câmera.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TickBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int inimigos;
+
+    @Param({"true", "false"})
+    public boolean lod;
+
+    private GameWorld world;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = BenchmarkWorlds.mundo(OfficeMap.criarEscritorioPadrao(), inimigos);
+        world.setLodIA(lod);
+        // Vida praticamente infinita para que o tick não pare em game over
+        world.getPlayer().health = Integer.MAX_VALUE;
+    }
+
+    @Benchmark
+    public int tick() {
+        world.atualizar(BenchmarkWorlds.FIXED_DELTA);
+        return world.getBalasAtivas();
+    }
+}
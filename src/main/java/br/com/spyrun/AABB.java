@@ -0,0 +1,90 @@
+package br.com.spyrun;
+
+/**
+ * Classe AABB
+ * Caixa delimitadora alinhada aos eixos (axis-aligned bounding box),
+ * usada em todas as verificações de colisão. Guarda apenas primitivos
+ * e é mutável, para que cada entidade reaproveite a própria caixa em
+ * vez de criar um objeto novo a cada consulta.
+ */
+public class AABB {
+
+    // Cantos mínimo (superior esquerdo) e máximo (inferior direito)
+    public double minX;
+    public double minY;
+    public double maxX;
+    public double maxY;
+
+    public AABB() {
+    }
+
+    /**
+     * Construtor a partir de posição e tamanho.
+     * @param x canto esquerdo
+     * @param y canto superior
+     * @param width largura
+     * @param height altura
+     */
+    public AABB(double x, double y, double width, double height) {
+        set(x, y, width, height);
+    }
+
+    /**
+     * Redefine a caixa a partir de posição e tamanho.
+     * @return esta mesma caixa
+     */
+    public AABB set(double x, double y, double width, double height) {
+        minX = x;
+        minY = y;
+        maxX = x + width;
+        maxY = y + height;
+        return this;
+    }
+
+    /**
+     * Redefine a caixa centrada em um ponto.
+     * @param cx centro X
+     * @param cy centro Y
+     * @param halfWidth metade da largura
+     * @param halfHeight metade da altura
+     * @return esta mesma caixa
+     */
+    public AABB setCentro(double cx, double cy, double halfWidth, double halfHeight) {
+        minX = cx - halfWidth;
+        minY = cy - halfHeight;
+        maxX = cx + halfWidth;
+        maxY = cy + halfHeight;
+        return this;
+    }
+
+    /**
+     * Verifica se esta caixa intercepta outra (bordas encostadas não contam).
+     */
+    public boolean intersects(AABB other) {
+        return minX < other.maxX && maxX > other.minX
+                && minY < other.maxY && maxY > other.minY;
+    }
+
+    /**
+     * Verifica se esta caixa intercepta o retângulo informado.
+     */
+    public boolean intersects(double x, double y, double width, double height) {
+        return minX < x + width && maxX > x
+                && minY < y + height && maxY > y;
+    }
+
+    /**
+     * Verifica se o ponto está dentro da caixa (bordas inclusas).
+     */
+    public boolean contains(double px, double py) {
+        return px >= minX && px <= maxX && py >= minY && py <= maxY;
+    }
+
+    public double getWidth() {
+        return maxX - minX;
+    }
+
+    public double getHeight() {
+        return maxY - minY;
+    }
+}
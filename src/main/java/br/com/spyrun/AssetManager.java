@@ -0,0 +1,159 @@
+package br.com.spyrun;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.image.Image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Classe AssetManager
+ * Carrega os recursos do jogo fora da thread do JavaFX, para que a
+ * janela apareça (com a tela de carregamento) antes deles.
+ *
+ * Imagens são decodificadas pelo background loading do próprio Image,
+ * em paralelo, e ficam no {@link SpriteCache}; o restante (mapa, atlas
+ * de sprites) roda como tarefas em um pequeno conjunto de threads de
+ * fundo. Os recursos essenciais são aguardados por
+ * {@link #aoConcluir(Runnable, Consumer)}; os secundários (ex.: atlas
+ * das escalas reduzidas) são preparados depois, com o jogo já rodando.
+ */
+public class AssetManager {
+
+    private final ExecutorService executor;
+
+    // Recursos essenciais pedidos e quantos deles já terminaram
+    private final List<CompletableFuture<?>> essenciais = new ArrayList<>();
+    private final AtomicInteger concluidos = new AtomicInteger();
+
+    public AssetManager() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "assets-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia o carregamento de uma imagem essencial. Deve ser chamado na
+     * thread do JavaFX.
+     * @param path caminho do recurso no classpath
+     * @param width largura desejada (0 = tamanho original)
+     * @param height altura desejada (0 = tamanho original)
+     * @return futuro concluído quando a imagem terminar de carregar; o
+     *         valor é null se ela não pôde ser carregada
+     */
+    public CompletableFuture<Image> imagem(String path, double width, double height) {
+        CompletableFuture<Image> futuro = new CompletableFuture<>();
+        Image imagem = SpriteCache.carregarEmSegundoPlano(path, width, height);
+        if (imagem == null) {
+            futuro.complete(null);
+        } else {
+            // O progresso é atualizado na thread do JavaFX; com erro ele também chega a 1
+            ChangeListener<Number> aoProgredir = (obs, antes, agora) -> {
+                if (agora.doubleValue() >= 1 || imagem.isError()) {
+                    SpriteCache.descartarComErro(path, width, height);
+                    futuro.complete(imagem.isError() ? null : imagem);
+                }
+            };
+            imagem.progressProperty().addListener(aoProgredir);
+            imagem.errorProperty().addListener((obs, antes, agora) -> aoProgredir.changed(null, 0, 1));
+            if (imagem.getProgress() >= 1 || imagem.isError()) {
+                aoProgredir.changed(null, 0, 1);
+            }
+        }
+        return registrar(futuro);
+    }
+
+    /**
+     * Executa uma tarefa essencial em uma thread de fundo.
+     */
+    public <T> CompletableFuture<T> tarefa(Callable<T> tarefa) {
+        return registrar(CompletableFuture.supplyAsync(() -> executar(tarefa), executor));
+    }
+
+    /**
+     * Executa uma tarefa essencial em uma thread de fundo depois que as
+     * dependências terminarem.
+     */
+    public <T> CompletableFuture<T> tarefaApos(List<? extends CompletableFuture<?>> dependencias, Callable<T> tarefa) {
+        CompletableFuture<Void> todas = CompletableFuture.allOf(dependencias.toArray(new CompletableFuture<?>[0]));
+        return registrar(todas.thenApplyAsync(v -> executar(tarefa), executor));
+    }
+
+    /**
+     * Executa uma tarefa secundária em uma thread de fundo, depois dos
+     * recursos essenciais; ninguém espera por ela.
+     */
+    public void secundaria(Runnable tarefa) {
+        todasEssenciais().whenCompleteAsync((v, erro) -> {
+            if (erro == null) tarefa.run();
+        }, executor);
+    }
+
+    /**
+     * Agenda uma ação na thread do JavaFX para quando todos os recursos
+     * essenciais pedidos até aqui estiverem prontos.
+     * @param acao executada quando tudo carregou
+     * @param aoFalhar executada com a causa se alguma tarefa falhou
+     */
+    public void aoConcluir(Runnable acao, Consumer<Throwable> aoFalhar) {
+        todasEssenciais().whenComplete((v, erro) -> Platform.runLater(() -> {
+            if (erro == null) {
+                acao.run();
+            } else {
+                aoFalhar.accept(erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro);
+            }
+        }));
+    }
+
+    /**
+     * @return fração dos recursos essenciais já carregados (0 a 1)
+     */
+    public double getProgresso() {
+        int total;
+        synchronized (essenciais) {
+            total = essenciais.size();
+        }
+        return total == 0 ? 1 : concluidos.get() / (double) total;
+    }
+
+    /**
+     * Encerra as threads de fundo; tarefas secundárias pendentes são descartadas.
+     */
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> registrar(CompletableFuture<T> futuro) {
+        synchronized (essenciais) {
+            essenciais.add(futuro);
+        }
+        futuro.whenComplete((v, erro) -> concluidos.incrementAndGet());
+        return futuro;
+    }
+
+    private CompletableFuture<Void> todasEssenciais() {
+        synchronized (essenciais) {
+            return CompletableFuture.allOf(essenciais.toArray(new CompletableFuture<?>[0]));
+        }
+    }
+
+    private static <T> T executar(Callable<T> tarefa) {
+        try {
+            return tarefa.call();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+
+/**
+ * Classe BulletPool
+ * Armazena todos os projéteis do jogo em arrays primitivos paralelos
+ * (estrutura de arrays), pré-alocados e reaproveitados.
+ *
+ * As balas vivas ocupam sempre os índices [0, size). Ao morrer,
+ * uma bala é apenas marcada; {@link #compact()} remove as mortas
+ * trocando-as pela última bala viva (swap-remove), sem alocar memória.
+ */
+public class BulletPool {
+
+    // Velocidade escalar das balas (pixels por segundo)
+    public static final double SPEED = 400;
+
+    // Raio da bala, usado na colisão com o mapa (igual ao desenho)
+    public static final double RAIO = 4;
+
+    // Quantidade de dano que cada projétil causa ao atingir um alvo
+    public static final double DAMAGE = 20;
+
+    // Tempo máximo de vida de uma bala (em segundos)
+    public static final double LIFETIME = 3.0;
+
+    // Posição, velocidade e idade de cada bala
+    public double[] x;
+    public double[] y;
+    public double[] vx;
+    public double[] vy;
+    public double[] age;
+
+    // Posição de cada bala no tick anterior, usada para interpolar o desenho
+    public double[] prevX;
+    public double[] prevY;
+
+    // Dono do disparo: PLAYER (jogador) ou ENEMY (inimigo)
+    public Shooter[] owner;
+
+    // Indica se a bala ainda está ativa (false = será reciclada no compact)
+    public boolean[] alive;
+
+    // Quantidade de posições ocupadas no pool
+    private int size;
+
+    /**
+     * Construtor do pool.
+     * @param capacity quantidade de balas pré-alocadas
+     */
+    public BulletPool(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        age = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        owner = new Shooter[capacity];
+        alive = new boolean[capacity];
+    }
+
+    /**
+     * Dispara uma nova bala a partir de uma posição, em uma direção.
+     * @param px posição inicial X
+     * @param py posição inicial Y
+     * @param dirX componente X da direção do disparo
+     * @param dirY componente Y da direção do disparo
+     * @param shooter dono do tiro (PLAYER ou ENEMY)
+     * @return índice da bala criada, ou -1 se a direção for inválida
+     */
+    public int spawn(double px, double py, double dirX, double dirY, Shooter shooter) {
+        // Calcula o comprimento (módulo) do vetor direção
+        double len = Math.sqrt(dirX * dirX + dirY * dirY);
+
+        // Se o vetor direção for muito pequeno, evita divisão por zero
+        if (len < 1e-6) {
+            return -1;
+        }
+
+        if (size == x.length) {
+            crescer();
+        }
+
+        int i = size++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = (dirX / len) * SPEED;
+        vy[i] = (dirY / len) * SPEED;
+        age[i] = 0;
+        prevX[i] = px;
+        prevY[i] = py;
+        owner[i] = shooter;
+        alive[i] = true;
+        return i;
+    }
+
+    /**
+     * Atualiza a posição de todas as balas vivas.
+     * Balas que ultrapassam o tempo de vida são marcadas como mortas.
+     * @param delta tempo decorrido desde o último frame (em segundos)
+     */
+    public void update(double delta) {
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) continue;
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            age[i] += delta;
+            if (age[i] >= LIFETIME) {
+                alive[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Copia as posições atuais para prevX/prevY no início de um tick.
+     */
+    public void salvarPosicoesAnteriores() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    /**
+     * Remove as balas mortas trocando cada uma pela última viva.
+     * A ordem das balas não é preservada.
+     */
+    public void compact() {
+        int i = 0;
+        while (i < size) {
+            if (alive[i]) {
+                i++;
+                continue;
+            }
+            int last = --size;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            age[i] = age[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            owner[i] = owner[last];
+            alive[i] = alive[last];
+            owner[last] = null;
+            alive[last] = false;
+        }
+    }
+
+    /**
+     * @return quantidade de posições ocupadas (balas vivas após compact)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se a bala saiu dos limites do mundo.
+     * @param i índice da bala
+     * @return true se a bala está fora do mundo
+     */
+    public boolean isOutOfBounds(int i, double worldWidth, double worldHeight) {
+        return x[i] < 0 || y[i] < 0 || x[i] > worldWidth || y[i] > worldHeight;
+    }
+
+    /**
+     * Dobra a capacidade do pool quando todas as posições estão ocupadas.
+     */
+    private void crescer() {
+        int novaCapacidade = Math.max(16, x.length * 2);
+        x = Arrays.copyOf(x, novaCapacidade);
+        y = Arrays.copyOf(y, novaCapacidade);
+        vx = Arrays.copyOf(vx, novaCapacidade);
+        vy = Arrays.copyOf(vy, novaCapacidade);
+        age = Arrays.copyOf(age, novaCapacidade);
+        prevX = Arrays.copyOf(prevX, novaCapacidade);
+        prevY = Arrays.copyOf(prevY, novaCapacidade);
+        owner = Arrays.copyOf(owner, novaCapacidade);
+        alive = Arrays.copyOf(alive, novaCapacidade);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.spyrun;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Classe ChunkedMapFile
+ * Acesso a um mapa compilado pelo {@link MapCompiler}. O arquivo é
+ * mapeado em memória (somente leitura): abrir lê apenas o cabeçalho e
+ * a paleta, e cada chunk é decodificado sob demanda, direto das páginas
+ * mapeadas. O sistema operacional carrega do disco só as partes do
+ * arquivo que forem lidas, então o mapa pode ser bem maior que o que
+ * o jogo mantém carregado.
+ *
+ * As leituras usam posições absolutas e não alteram o buffer, por isso
+ * podem ser feitas de qualquer thread.
+ */
+public class ChunkedMapFile {
+
+    private final MappedByteBuffer dados;
+
+    // Dados do cabeçalho
+    private final int largura;
+    private final int altura;
+    private final int ladoChunk;
+    private final int colunas;
+    private final int linhas;
+    private final int[] paleta;
+    private final int totalObjetos;
+
+    // Posição da tabela de chunks no arquivo
+    private final int inicioTabela;
+
+    /**
+     * Mapeia o arquivo e lê o cabeçalho.
+     * @throws IOException se o arquivo não é um mapa compilado válido
+     */
+    public ChunkedMapFile(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (dados.capacity() < 5 || dados.getInt(0) != MapCompiler.MAGIA) {
+            throw new IOException("Arquivo de mapa inválido: " + arquivo);
+        }
+        byte versao = dados.get(4);
+        if (versao != MapCompiler.VERSAO) {
+            throw new IOException("Versão de mapa não suportada: " + versao);
+        }
+        largura = dados.getInt(5);
+        altura = dados.getInt(9);
+        ladoChunk = dados.getInt(13);
+        colunas = dados.getInt(17);
+        linhas = dados.getInt(21);
+        if (dados.capacity() < 29) {
+            throw new IOException("Mapa truncado: " + arquivo);
+        }
+        int cores = dados.getInt(25);
+        if (cores < 0 || cores > MapCompiler.MAX_CORES || 29 + cores * 4L + 4 > dados.capacity()) {
+            throw new IOException("Mapa corrompido: paleta com " + cores + " cores em " + arquivo);
+        }
+        paleta = new int[cores];
+        int posicao = 29;
+        for (int i = 0; i < cores; i++, posicao += 4) {
+            paleta[i] = dados.getInt(posicao);
+        }
+        totalObjetos = dados.getInt(posicao);
+        inicioTabela = posicao + 4;
+        if (inicioTabela + (long) colunas * linhas * MapCompiler.TAMANHO_ENTRADA_TABELA > dados.capacity()) {
+            throw new IOException("Mapa truncado: " + arquivo);
+        }
+    }
+
+    /**
+     * @return quantidade de objetos gravados no chunk (cx, cy)
+     */
+    public int quantidade(int cx, int cy) {
+        return dados.getInt(inicioTabela + (cy * colunas + cx) * MapCompiler.TAMANHO_ENTRADA_TABELA + 4);
+    }
+
+    /**
+     * Decodifica os objetos do chunk (cx, cy). Os arrays devem ter pelo
+     * menos {@link #quantidade(int, int)} posições.
+     * @param ids recebe o id de cada objeto (igual em todos os chunks que ele toca)
+     * @param objetos recebe os objetos
+     * @return quantidade de objetos lidos
+     * @throws UncheckedIOException se um objeto usa uma cor fora da paleta
+     */
+    public int lerChunk(int cx, int cy, int[] ids, MapObject[] objetos) {
+        int entrada = inicioTabela + (cy * colunas + cx) * MapCompiler.TAMANHO_ENTRADA_TABELA;
+        int posicao = dados.getInt(entrada);
+        int quantidade = dados.getInt(entrada + 4);
+        for (int k = 0; k < quantidade; k++, posicao += MapCompiler.TAMANHO_REGISTRO) {
+            // O índice da cor é gravado como short sem sinal
+            int cor = Short.toUnsignedInt(dados.getShort(posicao + 20));
+            if (cor >= paleta.length) {
+                throw new UncheckedIOException(new IOException(
+                        "Mapa corrompido: cor " + cor + " fora da paleta de " + paleta.length + " cores"));
+            }
+            ids[k] = dados.getInt(posicao);
+            objetos[k] = new MapObject(dados.getFloat(posicao + 4), dados.getFloat(posicao + 8),
+                    dados.getFloat(posicao + 12), dados.getFloat(posicao + 16), paleta[cor]);
+        }
+        return quantidade;
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    public int getLadoChunk() {
+        return ladoChunk;
+    }
+
+    public int getColunas() {
+        return colunas;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public int getTotalObjetos() {
+        return totalObjetos;
+    }
+}
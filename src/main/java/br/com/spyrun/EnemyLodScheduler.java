@@ -0,0 +1,153 @@
+package br.com.spyrun;
+
+/**
+ * Classe EnemyLodScheduler
+ * Nível de detalhe (LOD) da IA dos inimigos. Inimigos na tela ou perto
+ * dela são atualizados a cada tick; os mais distantes, com frequência
+ * menor, divididos em baldes (round-robin) para que a cada tick apenas
+ * uma parte deles seja processada. O tempo não processado é acumulado
+ * no inimigo e aplicado de uma vez na próxima atualização.
+ *
+ * Além disso, a quantidade de atualizações de inimigos distantes por
+ * tick é limitada por um orçamento configurável; os que ficarem de fora
+ * são os primeiros atendidos no tick seguinte.
+ *
+ * O planejamento é sequencial e apenas preenche {@link EnemyStore#deltaIA};
+ * a atualização em si continua podendo rodar em paralelo.
+ */
+public class EnemyLodScheduler {
+
+    // Distância até a área visível abaixo da qual o inimigo é atualizado todo tick
+    public static final double DISTANCIA_PERTO = 128;
+
+    // Distância até a área visível abaixo da qual o inimigo é "médio"
+    public static final double DISTANCIA_MEDIA = 512;
+
+    // Intervalo, em ticks, entre as atualizações de inimigos médios e distantes
+    public static final int PERIODO_MEDIO = 4;
+    public static final int PERIODO_LONGE = 12;
+
+    // Orçamento padrão de atualizações de inimigos fora da área próxima por tick
+    public static final int ORCAMENTO_PADRAO = 1024;
+
+    // Tempo máximo acumulado aplicado de uma vez, para que um inimigo
+    // adiado várias vezes não atravesse objetos do mapa em um único passo
+    private static final double MAX_DELTA_ACUMULADO = 0.25;
+
+    private int orcamento = ORCAMENTO_PADRAO;
+
+    // Contador de ticks, usado para escolher o balde da vez
+    private long tick;
+
+    // Posição na lista onde a varredura dos inimigos distantes começa
+    // (o primeiro adiado no tick anterior); acompanha a compactação dos
+    // mortos em antesDeRemoverMortos
+    private int cursor;
+
+    // Quantidade de inimigos distantes atualizados no último tick
+    private int atualizadosLonge;
+
+    /**
+     * Define o máximo de inimigos distantes atualizados por tick.
+     */
+    public void setOrcamento(int orcamento) {
+        this.orcamento = Math.max(0, orcamento);
+    }
+
+    public int getOrcamento() {
+        return orcamento;
+    }
+
+    /**
+     * @return inimigos fora da área próxima atualizados no último tick
+     */
+    public int getAtualizadosLonge() {
+        return atualizadosLonge;
+    }
+
+    /**
+     * Decide quais inimigos são atualizados neste tick e com qual delta.
+     * Inimigos que não serão atualizados ficam com deltaIA = 0.
+     * @param e inimigos vivos (e mortos ainda não removidos)
+     * @param delta duração do tick
+     * @param visivel área visível da câmera, em coordenadas do mundo
+     */
+    public void planejar(EnemyStore e, double delta, AABB visivel) {
+        tick++;
+        int n = e.size();
+        if (cursor >= n) {
+            cursor = 0;
+        }
+
+        int restante = orcamento;
+        int proximoCursor = -1;
+        for (int k = 0; k < n; k++) {
+            // Começa do cursor, para que os adiados no tick anterior venham primeiro
+            int i = cursor + k;
+            if (i >= n) i -= n;
+            e.tempoPendenteIA[i] = Math.min(MAX_DELTA_ACUMULADO, e.tempoPendenteIA[i] + delta);
+            e.deltaIA[i] = 0;
+            if (!e.alive[i]) continue;
+
+            int periodo = periodo(distancia(e.x[i], e.y[i], visivel));
+            if (periodo == 1) {
+                liberar(e, i);
+                continue;
+            }
+            if ((tick + e.baldeIA[i]) % periodo != 0 && !e.adiadoIA[i]) {
+                continue;
+            }
+            if (restante == 0) {
+                // Sem orçamento: fica para o próximo tick, mantendo o tempo acumulado
+                e.adiadoIA[i] = true;
+                if (proximoCursor < 0) proximoCursor = i;
+                continue;
+            }
+            restante--;
+            liberar(e, i);
+        }
+        atualizadosLonge = orcamento - restante;
+        cursor = proximoCursor >= 0 ? proximoCursor : 0;
+    }
+
+    /**
+     * Ajusta o cursor para a compactação que o {@link EnemyStore} vai
+     * fazer: cada morto antes dele desloca os vivos uma posição para
+     * trás, então o cursor recua o mesmo tanto e continua no inimigo
+     * (ou, se ele morreu, no vivo seguinte) em que a varredura parou.
+     * Deve ser chamado logo antes de {@link EnemyStore#removerMortos()}.
+     */
+    public void antesDeRemoverMortos(EnemyStore e) {
+        int limite = Math.min(cursor, e.size());
+        int mortos = 0;
+        for (int i = 0; i < limite; i++) {
+            if (!e.alive[i]) mortos++;
+        }
+        cursor -= mortos;
+    }
+
+    /**
+     * Marca o inimigo para ser atualizado com todo o tempo acumulado.
+     */
+    private static void liberar(EnemyStore e, int i) {
+        e.deltaIA[i] = e.tempoPendenteIA[i];
+        e.tempoPendenteIA[i] = 0;
+        e.adiadoIA[i] = false;
+    }
+
+    private static int periodo(double distancia) {
+        if (distancia <= DISTANCIA_PERTO) return 1;
+        if (distancia <= DISTANCIA_MEDIA) return PERIODO_MEDIO;
+        return PERIODO_LONGE;
+    }
+
+    /**
+     * Distância (na maior das direções) do inimigo até a área visível;
+     * zero se ele está dentro dela.
+     */
+    private static double distancia(double x, double y, AABB visivel) {
+        double dx = Math.max(0, Math.max(visivel.minX - x, x - visivel.maxX));
+        double dy = Math.max(0, Math.max(visivel.minY - y, y - visivel.maxY));
+        return Math.max(dx, dy);
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+
+/**
+ * Classe EnemyStore
+ * Armazena todos os inimigos do jogo em arrays primitivos paralelos
+ * (estrutura de arrays): cada componente (posição, vida, cooldown do
+ * tiro, direção, estado da IA) fica contíguo na memória e os sistemas
+ * do {@link GameWorld} (movimento, tiro, colisão) e o desenho percorrem
+ * os arrays em ordem, sem seguir referências para objetos espalhados.
+ *
+ * Os inimigos ocupam sempre os índices [0, size). Ao morrer, um inimigo
+ * é apenas marcado; {@link #removerMortos()} compacta os vivos
+ * preservando a ordem, para que o resultado da simulação não dependa
+ * de quando os mortos são removidos.
+ */
+public class EnemyStore {
+
+    // Metade do lado da caixa de colisão (30x30)
+    public static final double HALF_SIZE = 15;
+
+    // Valores iniciais de cada inimigo
+    public static final double SPEED = 80;
+    public static final double VIDA_INICIAL = 100;
+    public static final double SHOOT_COOLDOWN = 1.0;
+
+    private static final Player.Direction[] DIRECOES = Player.Direction.values();
+
+    // Posição atual e no tick anterior (usada para interpolar o desenho)
+    public double[] x;
+    public double[] y;
+    public double[] prevX;
+    public double[] prevY;
+
+    // Velocidade de movimento (pixels por segundo)
+    public double[] speed;
+
+    // Vida atual (0 a 100)
+    public double[] health;
+
+    // Intervalo mínimo entre disparos e tempo acumulado desde o último
+    public double[] shootCooldown;
+    public double[] timeSinceShot;
+
+    // Direção do sprite (ordinal de Player.Direction)
+    public byte[] direction;
+
+    // Indica se o inimigo ainda está vivo (false = removido em removerMortos)
+    public boolean[] alive;
+
+    // Nível de detalhe da IA (ver EnemyLodScheduler): balde do round-robin,
+    // tempo ainda não processado, delta a aplicar neste tick e se o
+    // inimigo ficou de fora do orçamento no tick anterior
+    public int[] baldeIA;
+    public double[] tempoPendenteIA;
+    public double[] deltaIA;
+    public boolean[] adiadoIA;
+
+    // Quantidade de posições ocupadas
+    private int size;
+
+    /**
+     * @param capacity quantidade de inimigos pré-alocados
+     */
+    public EnemyStore(int capacity) {
+        alocar(Math.max(16, capacity));
+    }
+
+    /**
+     * Adiciona um inimigo com os valores iniciais.
+     * @return índice do inimigo criado
+     */
+    public int adicionar(double px, double py) {
+        if (size == x.length) {
+            garantirCapacidade(x.length * 2);
+        }
+        int i = size++;
+        x[i] = px;
+        y[i] = py;
+        prevX[i] = px;
+        prevY[i] = py;
+        speed[i] = SPEED;
+        health[i] = VIDA_INICIAL;
+        shootCooldown[i] = SHOOT_COOLDOWN;
+        timeSinceShot[i] = 0;
+        direction[i] = (byte) Player.Direction.DOWN.ordinal();
+        alive[i] = true;
+        baldeIA[i] = 0;
+        tempoPendenteIA[i] = 0;
+        deltaIA[i] = 0;
+        adiadoIA[i] = false;
+        return i;
+    }
+
+    /**
+     * Remove os inimigos mortos, mantendo a ordem dos vivos.
+     * @return quantidade de inimigos removidos
+     */
+    public int removerMortos() {
+        int destino = 0;
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) continue;
+            if (destino != i) {
+                x[destino] = x[i];
+                y[destino] = y[i];
+                prevX[destino] = prevX[i];
+                prevY[destino] = prevY[i];
+                speed[destino] = speed[i];
+                health[destino] = health[i];
+                shootCooldown[destino] = shootCooldown[i];
+                timeSinceShot[destino] = timeSinceShot[i];
+                direction[destino] = direction[i];
+                alive[destino] = true;
+                baldeIA[destino] = baldeIA[i];
+                tempoPendenteIA[destino] = tempoPendenteIA[i];
+                deltaIA[destino] = deltaIA[i];
+                adiadoIA[destino] = adiadoIA[i];
+            }
+            destino++;
+        }
+        int removidos = size - destino;
+        Arrays.fill(alive, destino, size, false);
+        size = destino;
+        return removidos;
+    }
+
+    /**
+     * Copia as posições atuais para prevX/prevY no início de um tick.
+     */
+    public void salvarPosicoesAnteriores() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    /**
+     * Aplica dano ao inimigo.
+     * @return true se a vida chegou a 0 ou menos (inimigo morreu)
+     */
+    public boolean takeDamage(int i, double amount) {
+        health[i] -= amount;
+        return health[i] <= 0;
+    }
+
+    /**
+     * Verifica se o inimigo está pronto para atirar; se estiver,
+     * reinicia o tempo desde o último disparo.
+     */
+    public boolean readyToShoot(int i) {
+        if (timeSinceShot[i] >= shootCooldown[i]) {
+            timeSinceShot[i] = 0;
+            return true;
+        }
+        return false;
+    }
+
+    public Player.Direction getDirection(int i) {
+        return DIRECOES[direction[i]];
+    }
+
+    public void setDirection(int i, Player.Direction d) {
+        direction[i] = (byte) d.ordinal();
+    }
+
+    /**
+     * @return quantidade de inimigos (vivos e mortos ainda não removidos)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Garante espaço para pelo menos {@code capacidade} inimigos,
+     * evitando crescer os arrays no meio de uma onda de spawns.
+     */
+    public void garantirCapacidade(int capacidade) {
+        if (capacidade > x.length) {
+            alocar(Math.max(capacidade, x.length * 2));
+        }
+    }
+
+    private void alocar(int capacidade) {
+        x = copiar(x, capacidade);
+        y = copiar(y, capacidade);
+        prevX = copiar(prevX, capacidade);
+        prevY = copiar(prevY, capacidade);
+        speed = copiar(speed, capacidade);
+        health = copiar(health, capacidade);
+        shootCooldown = copiar(shootCooldown, capacidade);
+        timeSinceShot = copiar(timeSinceShot, capacidade);
+        tempoPendenteIA = copiar(tempoPendenteIA, capacidade);
+        deltaIA = copiar(deltaIA, capacidade);
+        direction = direction == null ? new byte[capacidade] : Arrays.copyOf(direction, capacidade);
+        alive = alive == null ? new boolean[capacidade] : Arrays.copyOf(alive, capacidade);
+        adiadoIA = adiadoIA == null ? new boolean[capacidade] : Arrays.copyOf(adiadoIA, capacidade);
+        baldeIA = baldeIA == null ? new int[capacidade] : Arrays.copyOf(baldeIA, capacidade);
+    }
+
+    private static double[] copiar(double[] origem, int capacidade) {
+        return origem == null ? new double[capacidade] : Arrays.copyOf(origem, capacidade);
+    }
+}
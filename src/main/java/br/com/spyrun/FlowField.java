@@ -0,0 +1,287 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+
+/**
+ * Classe FlowField
+ * Campo de fluxo em grade, compartilhado por todos os inimigos, que
+ * aponta para cada célula livre o próximo passo do caminho mais curto
+ * até o alvo (o player), contornando os objetos do mapa.
+ *
+ * O campo é refeito com uma única busca em largura (BFS) a partir da
+ * célula do alvo, e somente quando o alvo muda de célula ou o mapa muda
+ * de versão. Cada inimigo obtém a sua direção com uma consulta O(1).
+ * Quando só os chunks carregados do mesmo mapa mudam, apenas as células
+ * da área carregada são marcadas de novo; fora dela ficam as marcas de
+ * quando aqueles chunks estavam carregados.
+ *
+ * Em mundos grandes a busca fica limitada a {@link #ALCANCE} células do
+ * alvo em cada eixo; fora dessa janela não há caminho e as entidades vão
+ * direto ao alvo. Os arrays do campo cobrem só uma janela um pouco maior
+ * que a da busca, e não o mundo inteiro: quando o alvo se aproxima da
+ * borda, a janela é reposicionada ao redor dele, as marcas das células
+ * que continuam nela são aproveitadas e só as que entraram são marcadas.
+ * A janela cobre o mundo padrão inteiro.
+ *
+ * Depois de calculado o campo é somente leitura, por isso as consultas
+ * podem ser feitas em paralelo (ex.: {@link ParallelEnemyUpdater}).
+ */
+public class FlowField {
+
+    // Lado padrão das células, próximo ao tamanho de um inimigo
+    public static final double DEFAULT_CELL_SIZE = 32;
+
+    // Alcance da busca, em células, em cada eixo a partir do alvo
+    public static final int ALCANCE = 96;
+
+    // Células além do alcance em cada lado da janela, para que ela não
+    // precise ser reposicionada a cada passo do alvo
+    private static final int FOLGA_JANELA = 16;
+
+    // Vizinhos: 4 ortogonais seguidos de 4 diagonais
+    private static final int[] VIZINHO_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] VIZINHO_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final double cellSize;
+    private final int cols, rows;
+
+    // Janela coberta pelos arrays: tamanho e primeira célula, em células do mundo
+    private final int janelaCols, janelaRows;
+    private int origemX, origemY;
+
+    // Meia largura da caixa das entidades que seguem o campo
+    private final double folga;
+
+    // Células onde a entidade, centrada, colidiria com o mapa; o segundo
+    // array recebe as marcas quando a janela é reposicionada
+    private boolean[] bloqueada;
+    private boolean[] bloqueadaAnterior;
+
+    // Distância (em passos ortogonais) de cada célula até o alvo; -1 se inalcançável
+    private final int[] distancia;
+
+    // Próxima célula no caminho até o alvo; -1 no alvo ou sem caminho
+    private final int[] proxima;
+
+    // Fila da busca em largura; ao fim do cálculo guarda as células alcançadas
+    private final int[] fila;
+    private int alcancadas;
+
+    // Célula do alvo usada no último cálculo (índice na janela)
+    private int celulaAlvo = -1;
+
+    // Mapa e versão usados para marcar as células bloqueadas
+    private OfficeMap mapa;
+    private int versaoMapa = -1;
+
+    private final AABB caixa = new AABB();
+
+    /**
+     * @param worldWidth largura do mundo
+     * @param worldHeight altura do mundo
+     * @param cellSize lado de cada célula
+     * @param folga meia largura da caixa das entidades (ex.: EnemyStore.HALF_SIZE)
+     */
+    public FlowField(double worldWidth, double worldHeight, double cellSize, double folga) {
+        this.cellSize = cellSize;
+        this.folga = folga;
+        this.cols = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.janelaCols = Math.min(cols, 2 * (ALCANCE + FOLGA_JANELA) + 1);
+        this.janelaRows = Math.min(rows, 2 * (ALCANCE + FOLGA_JANELA) + 1);
+        int n = janelaCols * janelaRows;
+        bloqueada = new boolean[n];
+        bloqueadaAnterior = new boolean[n];
+        distancia = new int[n];
+        proxima = new int[n];
+        fila = new int[n];
+        Arrays.fill(distancia, -1);
+        Arrays.fill(proxima, -1);
+    }
+
+    /**
+     * Refaz o campo se o alvo mudou de célula ou o mapa mudou.
+     * @return true se o campo foi recalculado
+     */
+    public boolean atualizar(OfficeMap officeMap, double alvoX, double alvoY) {
+        boolean mapaMudou = officeMap != mapa || officeMap.getVersao() != versaoMapa;
+        if (mapaMudou) {
+            AABB area = officeMap != mapa ? null : officeMap.getAreaCarregada();
+            mapa = officeMap;
+            versaoMapa = officeMap.getVersao();
+            marcarBloqueadas(area);
+        }
+        int ax = coluna(alvoX);
+        int ay = linha(alvoY);
+        boolean janelaMudou = reposicionar(ax, ay);
+        int alvo = (ay - origemY) * janelaCols + ax - origemX;
+        if (!mapaMudou && !janelaMudou && alvo == celulaAlvo) {
+            return false;
+        }
+        celulaAlvo = alvo;
+        calcular();
+        return true;
+    }
+
+    /**
+     * Retorna a próxima célula do caminho a partir da posição informada.
+     * @return índice da célula ou -1 se a posição já está na célula do
+     *         alvo ou não há caminho (a entidade deve ir direto ao alvo)
+     */
+    public int proximaCelula(double x, double y) {
+        int cx = coluna(x) - origemX;
+        int cy = linha(y) - origemY;
+        if (cx < 0 || cy < 0 || cx >= janelaCols || cy >= janelaRows) {
+            return -1;
+        }
+        return proxima[cy * janelaCols + cx];
+    }
+
+    /**
+     * @return coordenada X do centro da célula
+     */
+    public double centroX(int celula) {
+        return (origemX + celula % janelaCols + 0.5) * cellSize;
+    }
+
+    /**
+     * @return coordenada Y do centro da célula
+     */
+    public double centroY(int celula) {
+        return (origemY + celula / janelaCols + 0.5) * cellSize;
+    }
+
+    /**
+     * Marca as células da janela em que uma entidade centrada colidiria
+     * com o mapa.
+     * @param area região a marcar, ou null para marcar a janela inteira
+     */
+    private void marcarBloqueadas(AABB area) {
+        int cx0 = origemX, cy0 = origemY;
+        int cx1 = origemX + janelaCols - 1, cy1 = origemY + janelaRows - 1;
+        if (area != null) {
+            cx0 = Math.max(cx0, (int) Math.floor(area.minX / cellSize));
+            cy0 = Math.max(cy0, (int) Math.floor(area.minY / cellSize));
+            cx1 = Math.min(cx1, (int) Math.ceil(area.maxX / cellSize) - 1);
+            cy1 = Math.min(cy1, (int) Math.ceil(area.maxY / cellSize) - 1);
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                bloqueada[(cy - origemY) * janelaCols + cx - origemX] = colide(cx, cy);
+            }
+        }
+    }
+
+    private boolean colide(int cx, int cy) {
+        caixa.setCentro((cx + 0.5) * cellSize, (cy + 0.5) * cellSize, folga, folga);
+        return mapa.colide(caixa);
+    }
+
+    /**
+     * Centraliza a janela no alvo se a busca ao redor dele sairia da
+     * janela atual. As marcas das células que continuam na janela são
+     * copiadas; as demais são marcadas de novo com o mapa atual.
+     * @return true se a janela mudou de posição
+     */
+    private boolean reposicionar(int ax, int ay) {
+        boolean cabe = Math.max(0, ax - ALCANCE) >= origemX
+                && Math.min(cols - 1, ax + ALCANCE) < origemX + janelaCols
+                && Math.max(0, ay - ALCANCE) >= origemY
+                && Math.min(rows - 1, ay + ALCANCE) < origemY + janelaRows;
+        if (cabe) {
+            return false;
+        }
+        int novaX = Math.max(0, Math.min(cols - janelaCols, ax - janelaCols / 2));
+        int novaY = Math.max(0, Math.min(rows - janelaRows, ay - janelaRows / 2));
+
+        boolean[] marcas = bloqueadaAnterior;
+        for (int ly = 0; ly < janelaRows; ly++) {
+            int cy = novaY + ly;
+            for (int lx = 0; lx < janelaCols; lx++) {
+                int cx = novaX + lx;
+                int antigaX = cx - origemX;
+                int antigaY = cy - origemY;
+                boolean estava = antigaX >= 0 && antigaY >= 0 && antigaX < janelaCols && antigaY < janelaRows;
+                marcas[ly * janelaCols + lx] = estava ? bloqueada[antigaY * janelaCols + antigaX] : colide(cx, cy);
+            }
+        }
+        bloqueadaAnterior = bloqueada;
+        bloqueada = marcas;
+        origemX = novaX;
+        origemY = novaY;
+
+        // Os índices do cálculo anterior eram relativos à janela antiga
+        Arrays.fill(distancia, -1);
+        Arrays.fill(proxima, -1);
+        alcancadas = 0;
+        return true;
+    }
+
+    /**
+     * Busca em largura a partir do alvo e, em seguida, escolhe para cada
+     * célula alcançada o vizinho mais próximo do alvo. Diagonais só são
+     * usadas quando as duas células ortogonais ao lado estão livres, para
+     * não cortar as quinas dos objetos.
+     */
+    private void calcular() {
+        // Limpa apenas as células alcançadas no cálculo anterior
+        for (int k = 0; k < alcancadas; k++) {
+            distancia[fila[k]] = -1;
+            proxima[fila[k]] = -1;
+        }
+
+        // Janela da busca ao redor do alvo (a janela dos arrays sempre a contém)
+        int minX = Math.max(0, celulaAlvo % janelaCols - ALCANCE);
+        int maxX = Math.min(janelaCols - 1, celulaAlvo % janelaCols + ALCANCE);
+        int minY = Math.max(0, celulaAlvo / janelaCols - ALCANCE);
+        int maxY = Math.min(janelaRows - 1, celulaAlvo / janelaCols + ALCANCE);
+
+        int inicio = 0, fim = 0;
+        distancia[celulaAlvo] = 0;
+        fila[fim++] = celulaAlvo;
+        while (inicio < fim) {
+            int c = fila[inicio++];
+            int cx = c % janelaCols;
+            int cy = c / janelaCols;
+            for (int v = 0; v < 4; v++) {
+                int nx = cx + VIZINHO_X[v];
+                int ny = cy + VIZINHO_Y[v];
+                if (nx < minX || ny < minY || nx > maxX || ny > maxY) continue;
+                int n = ny * janelaCols + nx;
+                if (bloqueada[n] || distancia[n] >= 0) continue;
+                distancia[n] = distancia[c] + 1;
+                fila[fim++] = n;
+            }
+        }
+
+        // A ordem da fila percorre apenas as células alcançadas
+        for (int k = 1; k < fim; k++) {
+            int c = fila[k];
+            int cx = c % janelaCols;
+            int cy = c / janelaCols;
+            int melhor = -1;
+            int melhorDistancia = distancia[c];
+            for (int v = 0; v < 8; v++) {
+                int nx = cx + VIZINHO_X[v];
+                int ny = cy + VIZINHO_Y[v];
+                if (nx < 0 || ny < 0 || nx >= janelaCols || ny >= janelaRows) continue;
+                int n = ny * janelaCols + nx;
+                int d = distancia[n];
+                if (d < 0 || d >= melhorDistancia) continue;
+                if (v >= 4 && (distancia[cy * janelaCols + nx] < 0 || distancia[ny * janelaCols + cx] < 0)) continue;
+                melhor = n;
+                melhorDistancia = d;
+            }
+            proxima[c] = melhor;
+        }
+        alcancadas = fim;
+    }
+
+    private int coluna(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int linha(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+}
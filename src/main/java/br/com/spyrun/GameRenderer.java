@@ -0,0 +1,186 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Classe GameRenderer
+ * Desenha um {@link WorldSnapshot} em um GraphicsContext:
+ * mapa, player, inimigos, balas e corações. O HUD e a tela de game
+ * over ficam em uma camada própria ({@link HudLayer}).
+ * Não precisa estar ligado a uma janela; pode desenhar em um canvas
+ * fora da cena, com a camada enviada por {@link SpriteBatch#ENVIO_DIRETO}
+ * (usado nos benchmarks de renderização, que assim medem o mesmo
+ * caminho de desenho do jogo).
+ *
+ * As entidades não geram um comando de desenho cada: os sprites vêm de
+ * um único {@link SpriteAtlas} e são compostos pelo {@link SpriteBatch}
+ * em uma camada que chega ao canvas com um só drawImage.
+ *
+ * Com escala de renderização menor que 1 o frame inteiro (chão em
+ * blocos do {@link MapLayerCache} e entidades de um atlas reduzido) é
+ * composto em software na camada reduzida do {@link SpriteBatch}, que é
+ * ampliada no canvas sem suavização com um só drawImage. Não há canvas
+ * intermediário nem leitura de volta da GPU a cada frame.
+ */
+public class GameRenderer {
+
+    private final GraphicsContext g;
+
+    // Dimensões da área visível
+    private final double viewWidth;
+    private final double viewHeight;
+
+    // Fator entre a área visível e os pixels da camada em que o frame é composto
+    private final double escala;
+
+    // Sprites das entidades e camada em que elas são compostas
+    private final SpriteAtlas atlas;
+    private final SpriteBatch lote;
+
+    // Cores das barras de vida (ARGB pré-multiplicado)
+    private static final int COR_FUNDO_VIDA = SpriteAtlas.argbPre(Color.WHITE);
+    private static final int COR_VIDA = SpriteAtlas.argbPre(Color.RED);
+
+    // Margem em volta da tela para não cortar sprites (32px) e barras de vida
+    // de entidades cujo centro está logo fora da área visível
+    private static final double MARGEM_CULLING = 40;
+
+    // Área visível (em coordenadas do mundo) e área expandida pela margem
+    private final AABB areaVisivel = new AABB();
+    private final AABB areaComMargem = new AABB();
+
+    // Camada estática do mapa rasterizada em blocos
+    private final MapLayerCache camadaMapa;
+
+    // Cor do chão (ARGB pré-multiplicado) para a escala reduzida
+    private static final int COR_CHAO = SpriteAtlas.argbPre(OfficeMap.COR_CHAO);
+
+    /**
+     * Construtor do renderizador.
+     * @param g contexto gráfico onde o jogo será desenhado
+     * @param viewWidth largura da área visível
+     * @param viewHeight altura da área visível
+     */
+    public GameRenderer(GraphicsContext g, double viewWidth, double viewHeight) {
+        this(g, viewWidth, viewHeight, 1);
+    }
+
+    /**
+     * Construtor do renderizador com escala de renderização.
+     * @param g contexto gráfico de um canvas com o tamanho da área visível
+     * @param viewWidth largura da área visível
+     * @param viewHeight altura da área visível
+     * @param escala fator de redução da resolução (0 a 1)
+     */
+    public GameRenderer(GraphicsContext g, double viewWidth, double viewHeight, double escala) {
+        this(g, viewWidth, viewHeight, escala, SpriteBatch.ENVIO_TELA);
+    }
+
+    /**
+     * Construtor do renderizador com escala e forma de envio da camada.
+     * @param envio como a camada composta chega à textura (ver {@link SpriteBatch.Envio})
+     */
+    public GameRenderer(GraphicsContext g, double viewWidth, double viewHeight, double escala,
+                        SpriteBatch.Envio envio) {
+        this.g = g;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.escala = escala;
+        g.setImageSmoothing(false);
+
+        // Sprites do player, dos inimigos, do coração e da bala em um único atlas
+        atlas = SpriteAtlas.obter(escala);
+        lote = new SpriteBatch(atlas, (int) Math.ceil(viewWidth * escala), (int) Math.ceil(viewHeight * escala),
+                escala, envio);
+        camadaMapa = new MapLayerCache(escala);
+    }
+
+    public double getEscala() {
+        return escala;
+    }
+
+    /**
+     * Interpola linearmente entre a posição anterior e a atual.
+     */
+    private static double interpolar(double anterior, double atual, double alpha) {
+        return anterior + (atual - anterior) * alpha;
+    }
+
+    /**
+     * Responsável por desenhar o mundo na tela:
+     * fundo, grade, player, inimigos, balas e corações.
+     * Lê apenas o {@link WorldSnapshot}, nunca o mundo em simulação.
+     * @param snapshot estado do mundo publicado pela simulação
+     * @param alpha fração entre o último tick e o próximo (0 a 1),
+     *              usada para interpolar as posições desenhadas
+     */
+    public void desenhar(WorldSnapshot snapshot, double alpha) {
+        // Posição interpolada do player e câmera correspondente
+        double playerRenderX = interpolar(snapshot.playerPrevX, snapshot.playerX, alpha);
+        double playerRenderY = interpolar(snapshot.playerPrevY, snapshot.playerY, alpha);
+        double cameraX = Math.max(0, Math.min(snapshot.officeMap.getLargura() - viewWidth, playerRenderX - viewWidth / 2.0));
+        double cameraY = Math.max(0, Math.min(snapshot.officeMap.getAltura() - viewHeight, playerRenderY - viewHeight / 2.0));
+
+        // Regiões do mundo que aparecem na tela
+        areaVisivel.set(cameraX, cameraY, viewWidth, viewHeight);
+        areaComMargem.set(cameraX - MARGEM_CULLING, cameraY - MARGEM_CULLING,
+                viewWidth + 2 * MARGEM_CULLING, viewHeight + 2 * MARGEM_CULLING);
+
+        boolean reduzida = escala < 1;
+        if (reduzida) {
+            // Chão e objetos do mapa entram na camada reduzida, antes das entidades
+            lote.fundo(COR_CHAO);
+            camadaMapa.registrar(lote, snapshot.officeMap, cameraX, cameraY, areaVisivel);
+        } else {
+            // Chão e objetos do mapa vêm dos blocos em cache
+            camadaMapa.desenhar(g, snapshot.officeMap, cameraX, cameraY, areaVisivel);
+        }
+        // Converte posição do player para coordenadas de tela
+        double playerScreenX = playerRenderX - cameraX;
+        double playerScreenY = playerRenderY - cameraY;
+
+        // Sprite do player (círculo azul se o sprite não carregou)
+        lote.sprite(SpriteAtlas.PLAYER + snapshot.playerDirection.ordinal(), playerScreenX, playerScreenY);
+
+        // Inimigos visíveis e suas barras de vida
+        // (o snapshot já contém apenas os inimigos vivos perto da câmera)
+        for (int i = 0; i < snapshot.inimigos; i++) {
+            if (!areaComMargem.contains(snapshot.inimigoX[i], snapshot.inimigoY[i])) continue;
+            double ex = interpolar(snapshot.inimigoPrevX[i], snapshot.inimigoX[i], alpha) - cameraX;
+            double ey = interpolar(snapshot.inimigoPrevY[i], snapshot.inimigoY[i], alpha) - cameraY;
+
+            // Sprite do inimigo (retângulo vermelho se o sprite não carregou)
+            lote.sprite(SpriteAtlas.INIMIGO + snapshot.inimigoDirecao[i].ordinal(), ex, ey);
+
+            // Barra de vida: fundo branco e parte vermelha proporcional à vida atual
+            lote.retangulo(ex - 15, ey - 25, 30, 4, COR_FUNDO_VIDA);
+            double lifeWidth = Math.max(0, Math.min(30, (snapshot.inimigoVida[i] / 100.0) * 30));
+            lote.retangulo(ex - 15, ey - 25, lifeWidth, 4, COR_VIDA);
+        }
+
+        // Balas visíveis
+        for (int i = 0; i < snapshot.balas; i++) {
+            if (!areaComMargem.contains(snapshot.balaX[i], snapshot.balaY[i])) continue;
+            double bx = interpolar(snapshot.balaPrevX[i], snapshot.balaX[i], alpha) - cameraX;
+            double by = interpolar(snapshot.balaPrevY[i], snapshot.balaY[i], alpha) - cameraY;
+            lote.sprite(SpriteAtlas.BALA, bx, by);
+        }
+
+        // Corações de vida visíveis no mapa
+        for (int i = 0; i < snapshot.coracoes; i++) {
+            Coracao coracao = snapshot.coracao[i];
+            if (coracao.getBounds().intersects(areaVisivel)) {
+                lote.sprite(SpriteAtlas.CORACAO, coracao.x + Coracao.TAMANHO / 2 - cameraX,
+                        coracao.y + Coracao.TAMANHO / 2 - cameraY);
+            }
+        }
+
+        // Compõe todas as entidades e desenha a camada de uma vez
+        if (reduzida) {
+            lote.desenharEm(g, viewWidth, viewHeight);
+        } else {
+            lote.desenharEm(g);
+        }
+    }
+}
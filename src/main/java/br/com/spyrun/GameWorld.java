@@ -0,0 +1,702 @@
+package br.com.spyrun;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Classe GameWorld
+ * Contém toda a simulação do jogo (player, inimigos, balas, corações,
+ * colisões e spawn), sem depender da interface JavaFX. Pode ser
+ * executada tanto pela janela ({@link Main}) quanto pelo modo
+ * headless ({@link HeadlessRunner}).
+ */
+public class GameWorld {
+
+    // Dimensões do mundo padrão (maior que a tela); mapas carregados
+    // de arquivo definem as próprias dimensões
+    public static final int WORLD_WIDTH = 2000;
+    public static final int WORLD_HEIGHT = 2000;
+
+    // Raios de colisão das balas com inimigos e com o jogador
+    private static final double ENEMY_HIT_RADIUS = 20;
+    private static final double PLAYER_HIT_RADIUS = 15;
+
+    // Lado de cada célula da grade espacial de colisão
+    private static final double COLLISION_CELL_SIZE = 64;
+
+    // Quantidade de balas pré-alocadas no pool
+    private static final int BULLET_POOL_CAPACITY = 4096;
+
+    // Quantidade de inimigos pré-alocados no armazenamento
+    private static final int ENEMY_STORE_CAPACITY = 256;
+
+    // Abaixo desta quantidade de inimigos o custo de dividir o trabalho
+    // entre threads supera o ganho, e a atualização segue sequencial
+    private static final int MIN_INIMIGOS_PARALELO = 512;
+
+    // Dimensões da área visível, usadas para posicionar a câmera
+    private final double viewWidth;
+    private final double viewHeight;
+
+    // Referência ao jogador
+    private final Player player;
+
+    // Flags de controle de movimento
+    private boolean up, down, left, right;
+
+    // Pool de balas, inimigos (em arrays) e corações ativos
+    private final BulletPool bullets = new BulletPool(BULLET_POOL_CAPACITY);
+    private final EnemyStore enemies = new EnemyStore(ENEMY_STORE_CAPACITY);
+    private final List<Coracao> coracoes = new ArrayList<>();
+    private final OfficeMap officeMap;
+
+    // Dimensões do mundo, definidas pelo mapa
+    private final double larguraMundo;
+    private final double alturaMundo;
+
+    // Grade espacial dos inimigos, reconstruída a cada tick para as colisões
+    private final SpatialGrid gradeInimigos;
+
+    // Campo de fluxo até o player, compartilhado pela perseguição dos inimigos
+    private final FlowField campoFluxo;
+
+    // Quantidade de balas vivas após a última limpeza do pool
+    private int balasAtivas = 0;
+
+    // Indica se o jogo terminou
+    private boolean gameOver = false;
+
+    // Spawn de inimigos e corações (temporizadores, ondas e posições válidas)
+    private final SpawnDirector diretorSpawn;
+
+    // Atualização paralela dos inimigos (desligada por padrão)
+    private boolean atualizacaoParalela = false;
+    private final ParallelEnemyUpdater atualizadorParalelo = new ParallelEnemyUpdater(ForkJoinPool.commonPool());
+    private final ParallelEnemyUpdater.Passo passoInimigo = this::atualizarInimigoAgendado;
+    private final IntConsumer disparoInimigo = this::atirarInimigo;
+
+    // Nível de detalhe da IA: inimigos distantes são atualizados com menos frequência
+    private boolean lodIA = true;
+    private final EnemyLodScheduler agendadorIA = new EnemyLodScheduler();
+    private int proximoBaldeIA = 0;
+
+    // Métricas por fase do tick (opcional; null quando não medido)
+    private MetricsRegistry metricas;
+    private MetricsRegistry.Serie serieTick, serieRemocao, seriePlayer, serieInimigos, serieBalas,
+            serieColisoes, serieCompactacao, serieSpawn, serieAlocacao,
+            serieQtdInimigos, serieQtdBalas, serieQtdCoracoes;
+
+    // Indica se o tick atual está sendo medido
+    private boolean medindo;
+
+    // Posição da câmera no mundo e área visível correspondente
+    private double cameraX, cameraY;
+    private final AABB areaVisivel = new AABB();
+
+    /**
+     * Construtor do mundo.
+     * @param officeMap mapa do escritório com os objetos de colisão
+     * @param viewWidth largura da área visível
+     * @param viewHeight altura da área visível
+     * @param random gerador de números aleatórios usado nos spawns
+     */
+    public GameWorld(OfficeMap officeMap, double viewWidth, double viewHeight, Random random) {
+        this.officeMap = officeMap;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.diretorSpawn = new SpawnDirector(random);
+        this.larguraMundo = officeMap.getLargura();
+        this.alturaMundo = officeMap.getAltura();
+        this.gradeInimigos = new SpatialGrid(larguraMundo, alturaMundo, COLLISION_CELL_SIZE);
+        this.campoFluxo = new FlowField(larguraMundo, alturaMundo, FlowField.DEFAULT_CELL_SIZE, EnemyStore.HALF_SIZE);
+
+        // Instancia o jogador no centro do mundo e carrega o mapa ao redor
+        // dele antes de posicionar inimigos e corações
+        player = new Player(larguraMundo / 2.0, alturaMundo / 2.0);
+        atualizarCamera();
+
+        // Cria alguns inimigos iniciais em posições diferentes
+        // (deslocados se a posição cair dentro de um objeto do mapa)
+        adicionarInimigoInicial(400, 400);
+        adicionarInimigoInicial(1600, 1600);
+        adicionarInimigoInicial(1600, 400);
+
+        // Gera alguns corações iniciais
+        for (int i = 0; i < 3; i++) {
+            if (diretorSpawn.sortearPosicaoCoracao(officeMap)) {
+                adicionarCoracao(diretorSpawn.getPosicaoX(), diretorSpawn.getPosicaoY());
+            }
+        }
+
+        campoFluxo.atualizar(officeMap, player.x, player.y);
+    }
+
+    /**
+     * Define as direções de movimento pressionadas pelo jogador.
+     */
+    public void setMovimento(boolean up, boolean down, boolean left, boolean right) {
+        this.up = up;
+        this.down = down;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Move a entidade e desfaz o movimento se ela colidir com o mapa.
+     * Visível no pacote para os benchmarks.
+     */
+    void checkAndApplyEntityMovement(Movable entity, double dx, double dy) {
+        double oldX = entity.getX();
+        double oldY = entity.getY();
+
+        entity.setX(oldX + dx);
+        entity.setY(oldY + dy);
+
+        // Testa apenas os objetos do mapa próximos (broadphase estática)
+        if (officeMap.colide(entity.getBounds())) {
+            entity.setX(oldX);
+            entity.setY(oldY);
+        }
+    }
+
+    /**
+     * Move o inimigo {@code i} e desfaz o movimento se a caixa dele
+     * colidir com o mapa. Visível no pacote para os benchmarks.
+     */
+    void moverInimigo(int i, double dx, double dy) {
+        double h = EnemyStore.HALF_SIZE;
+        double nx = enemies.x[i] + dx;
+        double ny = enemies.y[i] + dy;
+        if (!officeMap.colide(nx - h, ny - h, nx + h, ny + h)) {
+            enemies.x[i] = nx;
+            enemies.y[i] = ny;
+        }
+    }
+
+    /**
+     * Atualiza um inimigo: direção do sprite, movimento em direção ao
+     * player e cooldown do tiro. Só lê o estado compartilhado (player,
+     * mapa e campo de fluxo) e escreve na posição {@code i} dos arrays,
+     * por isso pode rodar em paralelo.
+     * @return true se o inimigo está pronto para atirar
+     */
+    private boolean atualizarInimigo(int i, double delta) {
+        EnemyStore e = enemies;
+        double ex = e.x[i];
+        double ey = e.y[i];
+
+        // Segue o campo de fluxo até o centro da próxima célula do caminho;
+        // na célula do player (ou sem caminho) vai direto até ele
+        double alvoX = player.x;
+        double alvoY = player.y;
+        int proxima = campoFluxo.proximaCelula(ex, ey);
+        if (proxima >= 0) {
+            alvoX = campoFluxo.centroX(proxima);
+            alvoY = campoFluxo.centroY(proxima);
+        }
+
+        // Calcula a direção do movimento do inimigo
+        double enemyDX = alvoX - ex;
+        double enemyDY = alvoY - ey;
+        double enemyLen = Math.sqrt(enemyDX * enemyDX + enemyDY * enemyDY);
+
+        if (enemyLen > 0) {
+            // Define a direção do sprite do inimigo
+            if (Math.abs(enemyDX) > Math.abs(enemyDY)) {
+                e.setDirection(i, (enemyDX > 0) ? Player.Direction.RIGHT : Player.Direction.LEFT);
+            } else {
+                e.setDirection(i, (enemyDY > 0) ? Player.Direction.DOWN : Player.Direction.UP);
+            }
+
+            enemyDX = (enemyDX / enemyLen) * e.speed[i] * delta;
+            enemyDY = (enemyDY / enemyLen) * e.speed[i] * delta;
+            moverInimigo(i, enemyDX, enemyDY);
+        }
+
+        // Cooldown do tiro
+        e.timeSinceShot[i] += delta;
+        return e.readyToShoot(i);
+    }
+
+    /**
+     * Atualiza o inimigo com o delta decidido pelo {@link EnemyLodScheduler}
+     * (ou com o delta do tick, se o LOD estiver desligado). Inimigos
+     * mortos são ignorados.
+     * @return true se o inimigo está pronto para atirar
+     */
+    private boolean atualizarInimigoAgendado(int i, double delta) {
+        if (!enemies.alive[i]) {
+            return false;
+        }
+        if (!lodIA) {
+            return atualizarInimigo(i, delta);
+        }
+        double deltaIA = enemies.deltaIA[i];
+        return deltaIA > 0 && atualizarInimigo(i, deltaIA);
+    }
+
+    /**
+     * Liga ou desliga o nível de detalhe da IA (ligado por padrão).
+     * Desligado, todos os inimigos são atualizados a cada tick.
+     */
+    public void setLodIA(boolean lodIA) {
+        this.lodIA = lodIA;
+    }
+
+    public EnemyLodScheduler getAgendadorIA() {
+        return agendadorIA;
+    }
+
+    /**
+     * Passa a registrar no {@link MetricsRegistry} o tempo de cada fase
+     * do tick, a quantidade de entidades e os bytes alocados por tick.
+     * O registro só acontece enquanto as métricas estiverem ativas.
+     */
+    public void setMetricas(MetricsRegistry metricas) {
+        this.metricas = metricas;
+        serieTick = metricas.serie("tick", MetricsRegistry.Unidade.NANOS);
+        serieRemocao = metricas.serie("tick.remocao", MetricsRegistry.Unidade.NANOS);
+        seriePlayer = metricas.serie("tick.player", MetricsRegistry.Unidade.NANOS);
+        serieInimigos = metricas.serie("tick.inimigos", MetricsRegistry.Unidade.NANOS);
+        serieBalas = metricas.serie("tick.balas", MetricsRegistry.Unidade.NANOS);
+        serieColisoes = metricas.serie("tick.colisoes", MetricsRegistry.Unidade.NANOS);
+        serieCompactacao = metricas.serie("tick.compactacao", MetricsRegistry.Unidade.NANOS);
+        serieSpawn = metricas.serie("tick.spawn", MetricsRegistry.Unidade.NANOS);
+        serieAlocacao = metricas.serie("alocacao.tick", MetricsRegistry.Unidade.BYTES);
+        serieQtdInimigos = metricas.serie("inimigos", MetricsRegistry.Unidade.CONTAGEM);
+        serieQtdBalas = metricas.serie("balas", MetricsRegistry.Unidade.CONTAGEM);
+        serieQtdCoracoes = metricas.serie("coracoes", MetricsRegistry.Unidade.CONTAGEM);
+    }
+
+    /**
+     * Registra o tempo desde {@code inicio} na série, se o tick está sendo medido.
+     * @return o instante atual, início da próxima fase
+     */
+    private long medir(MetricsRegistry.Serie serie, long inicio) {
+        if (!medindo) {
+            return 0;
+        }
+        long agora = System.nanoTime();
+        serie.registrar(agora - inicio);
+        return agora;
+    }
+
+    /**
+     * Liga ou desliga a atualização paralela dos inimigos.
+     * O resultado é o mesmo da versão sequencial.
+     */
+    public void setAtualizacaoParalela(boolean atualizacaoParalela) {
+        this.atualizacaoParalela = atualizacaoParalela;
+    }
+
+    /**
+     * Copia as posições atuais de player, inimigos e balas para prevX/prevY.
+     */
+    private void salvarPosicoesAnteriores() {
+        player.prevX = player.x;
+        player.prevY = player.y;
+        enemies.salvarPosicoesAnteriores();
+        bullets.salvarPosicoesAnteriores();
+    }
+
+    /**
+     * Centraliza a câmera no player, sem mostrar fora do mundo, e
+     * carrega os chunks do mapa ao redor da nova área visível.
+     */
+    private void atualizarCamera() {
+        cameraX = Math.max(0, Math.min(larguraMundo - viewWidth, player.x - viewWidth / 2.0));
+        cameraY = Math.max(0, Math.min(alturaMundo - viewHeight, player.y - viewHeight / 2.0));
+        areaVisivel.set(cameraX, cameraY, viewWidth, viewHeight);
+        officeMap.carregarAoRedor(areaVisivel);
+    }
+
+    /**
+     * Atualiza o estado do jogo:
+     * - movimenta o jogador
+     * - atualiza inimigos e disparos
+     * - verifica colisões
+     * - gerencia spawn de novos inimigos
+     * @param delta duração do tick (em segundos)
+     */
+    public void atualizar(double delta) {
+        if (gameOver) {
+            // Se o jogo acabou, não atualiza mais lógica
+            return;
+        }
+
+        medindo = metricas != null && metricas.isAtivo();
+        long inicioTick = medindo ? System.nanoTime() : 0;
+        long bytesInicio = medindo ? MetricsRegistry.bytesAlocadosThreadAtual() : 0;
+        long marca = inicioTick;
+
+        // Remove os inimigos mortos no tick anterior. A remoção fica no início
+        // do tick para que a grade de inimigos, usada também pelo desenho,
+        // continue válida entre o fim de um tick e o começo do próximo.
+        agendadorIA.antesDeRemoverMortos(enemies);
+        enemies.removerMortos();
+        marca = medir(serieRemocao, marca);
+
+        // Guarda as posições do tick anterior para a interpolação do desenho
+        salvarPosicoesAnteriores();
+
+        // Movimentação do jogador
+        double dx = 0, dy = 0;
+        if (up) dy -= 1;
+        if (down) dy += 1;
+        if (left) dx -= 1;
+        if (right) dx += 1;
+
+        double len = Math.sqrt(dx * dx + dy * dy);
+        if (len > 0) {
+            dx = (dx / len) * player.speed * delta;
+            dy = (dy / len) * player.speed * delta;
+            checkAndApplyEntityMovement(player, dx, dy);
+        }
+
+        // Mantém o jogador dentro dos limites do mundo
+        player.x = Math.max(0, Math.min(larguraMundo, player.x));
+        player.y = Math.max(0, Math.min(alturaMundo, player.y));
+
+        // Atualiza a posição da câmera para centralizar o player
+        // (e os chunks carregados do mapa)
+        atualizarCamera();
+
+        // Refaz o campo de fluxo se o player mudou de célula
+        campoFluxo.atualizar(officeMap, player.x, player.y);
+        marca = medir(seriePlayer, marca);
+
+        // Decide quais inimigos distantes da câmera são atualizados neste tick
+        if (lodIA) {
+            agendadorIA.planejar(enemies, delta, areaVisivel);
+        }
+
+        // Atualiza cada inimigo: movimento + tiro automático
+        if (atualizacaoParalela && enemies.size() >= MIN_INIMIGOS_PARALELO) {
+            atualizadorParalelo.atualizar(enemies.size(), delta, passoInimigo, disparoInimigo);
+        } else {
+            for (int i = 0; i < enemies.size(); i++) {
+                if (atualizarInimigoAgendado(i, delta)) {
+                    atirarInimigo(i);
+                }
+            }
+        }
+        marca = medir(serieInimigos, marca);
+
+        // Atualiza posição das balas ativas
+        bullets.update(delta);
+        marca = medir(serieBalas, marca);
+
+        // Verifica colisões das balas (mapa, inimigos e jogador) ao longo
+        // do trecho percorrido no tick e descarta as que saíram do mundo
+        checarColisoes();
+        marca = medir(serieColisoes, marca);
+
+        // Recicla as balas mortas
+        bullets.compact();
+        balasAtivas = bullets.size();
+        marca = medir(serieCompactacao, marca);
+
+        // Spawns periódicos e ondas pendentes, dentro do orçamento do tick
+        diretorSpawn.atualizar(this, delta);
+        medir(serieSpawn, marca);
+
+        if (medindo) {
+            serieTick.registrar(System.nanoTime() - inicioTick);
+            if (bytesInicio >= 0) {
+                serieAlocacao.registrar(MetricsRegistry.bytesAlocadosThreadAtual() - bytesInicio);
+            }
+            serieQtdInimigos.registrar(enemies.size());
+            serieQtdBalas.registrar(balasAtivas);
+            serieQtdCoracoes.registrar(coracoes.size());
+        }
+    }
+
+    /**
+     * Verifica colisões entre:
+     * - balas e objetos do mapa
+     * - balas do player e inimigos
+     * - balas dos inimigos e o jogador
+     * - jogador e corações de vida
+     * Aplica dano e trata morte / fim de jogo.
+     *
+     * As balas são testadas ao longo de todo o trecho percorrido no tick
+     * (de prevX/prevY até x/y), com o movimento do alvo no mesmo tick, e
+     * param no primeiro obstáculo ou alvo do caminho. Assim o resultado
+     * não depende da duração do tick nem da velocidade da bala.
+     * Visível no pacote para os benchmarks.
+     */
+    void checarColisoes() {
+        // Reconstrói a grade com as posições deste tick e mede o maior
+        // deslocamento de um inimigo, que amplia as consultas na grade
+        gradeInimigos.clear();
+        double maiorPassoInimigo = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.alive[i]) {
+                gradeInimigos.insert(i, enemies.x[i], enemies.y[i]);
+                double passo = Math.abs(enemies.x[i] - enemies.prevX[i]) + Math.abs(enemies.y[i] - enemies.prevY[i]);
+                maiorPassoInimigo = Math.max(maiorPassoInimigo, passo);
+            }
+        }
+
+        for (int b = 0; b < bullets.size(); b++) {
+            if (!bullets.alive[b]) continue;
+            double x0 = bullets.prevX[b];
+            double y0 = bullets.prevY[b];
+            double x1 = bullets.x[b];
+            double y1 = bullets.y[b];
+
+            // Fração do trecho percorrida até bater no mapa (SEM_IMPACTO se o
+            // caminho está livre); depois de decidir se a bala para ela é
+            // limitada a 1, o trecho inteiro, para os testes contra as entidades
+            double limite = officeMap.primeiroImpacto(x0, y0, x1, y1, BulletPool.RAIO);
+            boolean fim = limite <= 1 || bullets.isOutOfBounds(b, larguraMundo, alturaMundo);
+            limite = Math.min(limite, 1);
+
+            if (bullets.owner[b] == Shooter.PLAYER) {
+                // Balas do player: inimigos atingidos antes do mapa
+                if (atingirInimigos(x0, y0, x1, y1, limite, maiorPassoInimigo)) {
+                    fim = true;
+                }
+            } else {
+                // Balas dos inimigos: trecho relativo ao movimento do jogador
+                double t = SweptCollision.circuloContraCirculo(x0 - player.prevX, y0 - player.prevY,
+                        x1 - player.x, y1 - player.y, PLAYER_HIT_RADIUS);
+                if (t <= limite) {
+                    fim = true;
+                    boolean morto = player.takeDamage(BulletPool.DAMAGE);
+                    if (morto) {
+                        gameOver = true;
+                    }
+                }
+            }
+
+            if (fim) {
+                bullets.alive[b] = false;
+            }
+        }
+
+        // Colisão com corações de vida
+        Iterator<Coracao> coracaoIterator = coracoes.iterator();
+        while (coracaoIterator.hasNext()) {
+            Coracao coracao = coracaoIterator.next();
+            if (player.getBounds().intersects(coracao.getBounds())) {
+                if (player.health < Player.VIDA_MAXIMA) {
+                    player.curar();
+                }
+                coracaoIterator.remove(); // Remove o coração de forma segura
+            }
+        }
+    }
+
+    /**
+     * Aplica o dano de uma bala do player que percorre o trecho
+     * (x0, y0) - (x1, y1) até a fração {@code limite}. A bala para no
+     * primeiro contato com um inimigo vivo e atinge todos os inimigos
+     * encostados nela nesse instante (como no teste por posição final).
+     * A grade é consultada ao redor do meio do trecho, com raio que
+     * cobre o trecho, o raio de acerto e o deslocamento dos inimigos.
+     * @return true se a bala atingiu algum inimigo
+     */
+    private boolean atingirInimigos(double x0, double y0, double x1, double y1, double limite, double maiorPassoInimigo) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double raio = 0.5 * Math.sqrt(dx * dx + dy * dy) + ENEMY_HIT_RADIUS + maiorPassoInimigo;
+        int encontrados = gradeInimigos.queryRadius(x0 + dx * 0.5, y0 + dy * 0.5, raio);
+
+        // Instante do primeiro contato com um inimigo
+        double contato = SweptCollision.SEM_IMPACTO;
+        int primeiro = -1;
+        for (int k = 0; k < encontrados; k++) {
+            int e = gradeInimigos.result(k);
+            if (!enemies.alive[e]) continue;
+            double t = SweptCollision.circuloContraCirculo(x0 - enemies.prevX[e], y0 - enemies.prevY[e],
+                    x1 - enemies.x[e], y1 - enemies.y[e], ENEMY_HIT_RADIUS);
+            if (t < contato) {
+                contato = t;
+                primeiro = e;
+            }
+        }
+        if (primeiro < 0 || contato > limite) {
+            return false;
+        }
+
+        // Dano em todos os inimigos encostados na bala nesse instante
+        double bx = x0 + dx * contato;
+        double by = y0 + dy * contato;
+        double raio2 = ENEMY_HIT_RADIUS * ENEMY_HIT_RADIUS;
+        for (int k = 0; k < encontrados; k++) {
+            int e = gradeInimigos.result(k);
+            if (!enemies.alive[e]) continue;
+            double ex = enemies.prevX[e] + (enemies.x[e] - enemies.prevX[e]) * contato;
+            double ey = enemies.prevY[e] + (enemies.y[e] - enemies.prevY[e]) * contato;
+            double distX = bx - ex;
+            double distY = by - ey;
+            // O inimigo do primeiro contato está na borda do raio
+            if (e == primeiro || distX * distX + distY * distY < raio2) {
+                boolean morto = enemies.takeDamage(e, BulletPool.DAMAGE);
+                if (morto) {
+                    enemies.alive[e] = false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cria uma bala a partir da posição do player em direção a um ponto do mundo.
+     * @param alvoX posição X do alvo no mundo
+     * @param alvoY posição Y do alvo no mundo
+     */
+    public void atirarPlayer(double alvoX, double alvoY) {
+        if (gameOver) {
+            return;
+        }
+        // Calcula a direção do player para o alvo
+        double dirX = alvoX - player.x;
+        double dirY = alvoY - player.y;
+
+        // Cria a bala (direções nulas são descartadas pelo pool)
+        bullets.spawn(player.x, player.y, dirX, dirY, Shooter.PLAYER);
+    }
+
+    /**
+     * Cria uma bala a partir de um inimigo em direção ao player.
+     */
+    private void atirarInimigo(int i) {
+        double ex = enemies.x[i];
+        double ey = enemies.y[i];
+        bullets.spawn(ex, ey, player.x - ex, player.y - ey, Shooter.ENEMY);
+    }
+
+    /**
+     * Gera imediatamente um novo inimigo em uma posição aleatória livre
+     * do mundo, longe do player. Não passa pelo orçamento nem pelo limite
+     * de população do {@link SpawnDirector}; usado para montar cenários
+     * (modo headless e benchmarks).
+     * @return false se não foi encontrada uma posição livre
+     */
+    public boolean spawnEnemy() {
+        if (!diretorSpawn.sortearPosicaoInimigo(officeMap, player.x, player.y)) {
+            return false;
+        }
+        adicionarInimigo(diretorSpawn.getPosicaoX(), diretorSpawn.getPosicaoY());
+        return true;
+    }
+
+    /**
+     * Pede uma onda de inimigos. Eles são criados ao longo dos próximos
+     * ticks, respeitando o orçamento por tick e o limite de população.
+     */
+    public void solicitarOnda(int quantidade) {
+        // Reserva espaço de uma vez, em vez de crescer os arrays durante a onda
+        int limite = Math.min(enemies.size() + quantidade, diretorSpawn.getMaxInimigos());
+        enemies.garantirCapacidade(limite);
+        diretorSpawn.solicitarInimigos(quantidade);
+    }
+
+    /**
+     * Adiciona um inimigo inicial no ponto informado ou, se ele estiver
+     * dentro de um objeto do mapa, em um ponto livre próximo. Se não
+     * houver ponto livre por perto, o inimigo vira um spawn pendente do
+     * {@link SpawnDirector}, criado em uma posição sorteada.
+     */
+    private void adicionarInimigoInicial(double x, double y) {
+        if (!diretorSpawn.posicaoLivreProxima(officeMap, x, y)) {
+            diretorSpawn.solicitarInimigos(1);
+            return;
+        }
+        adicionarInimigo(diretorSpawn.getPosicaoX(), diretorSpawn.getPosicaoY());
+    }
+
+    /**
+     * Adiciona um inimigo ao armazenamento e à grade, para que ele já
+     * possa ser encontrado pelas consultas antes do próximo tick.
+     * @return índice do novo inimigo
+     */
+    int adicionarInimigo(double x, double y) {
+        int i = enemies.adicionar(x, y);
+        enemies.baldeIA[i] = proximoBaldeIA++;
+        gradeInimigos.insert(i, x, y);
+        return i;
+    }
+
+    /**
+     * Consulta os inimigos vivos cuja posição (no último tick) está na área,
+     * usando a mesma grade espacial das colisões.
+     * @param area região consultada, em coordenadas do mundo
+     * @return quantidade de inimigos encontrados; use {@link #getIndiceConsultado(int)}
+     */
+    public int consultarInimigos(AABB area) {
+        return gradeInimigos.queryArea(area);
+    }
+
+    /**
+     * @param k posição no resultado de {@link #consultarInimigos(AABB)}
+     * @return índice do inimigo no {@link EnemyStore}
+     */
+    public int getIndiceConsultado(int k) {
+        return gradeInimigos.result(k);
+    }
+
+    /**
+     * Adiciona um coração com o canto superior esquerdo no ponto informado.
+     */
+    void adicionarCoracao(double x, double y) {
+        coracoes.add(new Coracao(x, y));
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public EnemyStore getInimigos() {
+        return enemies;
+    }
+
+    public BulletPool getBullets() {
+        return bullets;
+    }
+
+    public List<Coracao> getCoracoes() {
+        return coracoes;
+    }
+
+    public SpawnDirector getDiretorSpawn() {
+        return diretorSpawn;
+    }
+
+    public OfficeMap getOfficeMap() {
+        return officeMap;
+    }
+
+    /**
+     * Retorna a quantidade de balas vivas no último tick.
+     */
+    public int getBalasAtivas() {
+        return balasAtivas;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public double getLarguraMundo() {
+        return larguraMundo;
+    }
+
+    public double getAlturaMundo() {
+        return alturaMundo;
+    }
+
+    public double getCameraX() {
+        return cameraX;
+    }
+
+    public double getCameraY() {
+        return cameraY;
+    }
+}
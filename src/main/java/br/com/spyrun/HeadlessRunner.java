@@ -0,0 +1,247 @@
+package br.com.spyrun;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe HeadlessRunner
+ * Executa a simulação do {@link GameWorld} sem janela, o mais rápido
+ * possível, e informa quantos ticks por segundo foram processados.
+ * Útil para testes de carga e profiling em servidores sem display.
+ *
+ * Uso: HeadlessRunner [ticks] [inimigos] [semente] [paralelo] [lod] [metricas]
+ *
+ *      HeadlessRunner replay arquivo [metricas]
+ *
+ *      HeadlessRunner onda quantidade [ticks] [semente]
+ *
+ *      HeadlessRunner compilar entrada.mapa saida.mapb
+ *
+ * Se {@code metricas} for informado, as fases do tick são medidas e o
+ * histórico é exportado em {@code metricas.csv} e {@code metricas.json}.
+ * No modo replay, a partida gravada pelo jogo ({@link ReplayRecorder})
+ * é reexecutada com a mesma semente, as mesmas entradas e o mesmo mapa
+ * (se o arquivo do mapa mudou, a reprodução é recusada). A assinatura
+ * do estado final permite conferir que duas execuções foram idênticas.
+ * O modo onda pede uma onda de inimigos ao {@link SpawnDirector} e
+ * informa em quantos ticks ela foi criada e quantos spawns houve no
+ * pior tick (limitado pelo orçamento por tick).
+ * O modo compilar converte um mapa texto para o formato binário
+ * dividido em chunks ({@link MapCompiler}).
+ */
+public class HeadlessRunner {
+
+    // Duração de cada tick simulado (mesma frequência do jogo)
+    private static final double FIXED_DELTA = 1.0 / 60.0;
+
+    // Intervalo, em ticks, entre os disparos simulados do jogador
+    private static final int TICKS_ENTRE_TIROS = 6;
+
+    // Intervalo, em ticks, entre consolidações do histórico de métricas
+    private static final int TICKS_ENTRE_CONSOLIDACOES = 60;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("replay")) {
+            try {
+                reproduzir(Paths.get(args[1]), args.length > 2 ? args[2] : null);
+            } catch (NoSuchFileException e) {
+                System.err.println("Arquivo não encontrado: " + e.getFile());
+                System.exit(1);
+            } catch (IOException e) {
+                System.err.println("Não foi possível reproduzir o replay: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("onda")) {
+            int quantidade = Integer.parseInt(args[1]);
+            int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+            long semente = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+            simularOnda(quantidade, ticks, semente);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("compilar")) {
+            MapCompiler.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int inimigos = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        long semente = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        boolean paralelo = args.length > 3 && Boolean.parseBoolean(args[3]);
+        boolean lod = args.length <= 4 || Boolean.parseBoolean(args[4]);
+        String arquivoMetricas = args.length > 5 ? args[5] : null;
+
+        GameWorld world = criarMundo(inimigos, semente, paralelo, lod);
+        MetricsRegistry metricas = criarMetricas(world, arquivoMetricas);
+
+        long inicio = System.nanoTime();
+        simular(world, ticks, metricas);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("Ticks: %d | Inimigos iniciais: %d | Paralelo: %b | LOD: %b | Tempo: %.3f s%n",
+                ticks, inimigos, paralelo, lod, segundos);
+        imprimirResultado(world, ticks, segundos);
+        exportarMetricas(metricas, arquivoMetricas);
+    }
+
+    /**
+     * Cria o mundo do teste de carga: escritório padrão, inimigos
+     * iniciais e vida praticamente infinita para que o teste não termine
+     * cedo por game over.
+     */
+    static GameWorld criarMundo(int inimigos, long semente, boolean paralelo, boolean lod) {
+        GameWorld world = new GameWorld(OfficeMap.criarEscritorioPadrao(), 960, 640, new Random(semente));
+        world.setAtualizacaoParalela(paralelo);
+        world.setLodIA(lod);
+        for (int i = 0; i < inimigos; i++) {
+            world.spawnEnemy();
+        }
+        world.getPlayer().health = Integer.MAX_VALUE;
+        return world;
+    }
+
+    /**
+     * Executa os ticks com a entrada simulada do teste de carga.
+     * @param metricas consolidadas a cada segundo simulado, ou null
+     */
+    static void simular(GameWorld world, int ticks, MetricsRegistry metricas) {
+        for (int tick = 0; tick < ticks; tick++) {
+            simularEntrada(world, tick);
+            world.atualizar(FIXED_DELTA);
+            if (metricas != null && (tick + 1) % TICKS_ENTRE_CONSOLIDACOES == 0) {
+                metricas.consolidar();
+            }
+        }
+    }
+
+    /**
+     * Reexecuta um replay gravado, sem janela e o mais rápido possível.
+     */
+    private static void reproduzir(Path arquivo, String arquivoMetricas) throws IOException {
+        try (ReplayReader replay = new ReplayReader(arquivo)) {
+            GameWorld world = new GameWorld(replay.carregarMapa(),
+                    replay.getViewWidth(), replay.getViewHeight(), new Random(replay.getSemente()));
+            MetricsRegistry metricas = criarMetricas(world, arquivoMetricas);
+            double delta = 1.0 / replay.getHz();
+            TickInput entrada = new TickInput();
+
+            int ticks = 0;
+            long inicio = System.nanoTime();
+            while (replay.proximoTick(entrada)) {
+                entrada.aplicar(world);
+                world.atualizar(delta);
+                ticks++;
+                if (metricas != null && ticks % TICKS_ENTRE_CONSOLIDACOES == 0) {
+                    metricas.consolidar();
+                }
+            }
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            System.out.printf("Replay: %s | Semente: %d | Ticks: %d | Tempo: %.3f s%n",
+                    arquivo, replay.getSemente(), ticks, segundos);
+            imprimirResultado(world, ticks, segundos);
+            exportarMetricas(metricas, arquivoMetricas);
+        }
+    }
+
+    /**
+     * Pede uma onda de inimigos com o player parado (sem tiros, nenhum
+     * inimigo morre) e acompanha quantos são criados a cada tick.
+     */
+    private static void simularOnda(int quantidade, int ticks, long semente) {
+        GameWorld world = new GameWorld(OfficeMap.criarEscritorioPadrao(), 960, 640, new Random(semente));
+        world.getPlayer().health = Integer.MAX_VALUE;
+        EnemyStore enemies = world.getInimigos();
+        int iniciais = enemies.size();
+        world.solicitarOnda(quantidade);
+
+        int piorTick = 0;
+        int ticksAteCriar = -1;
+        long inicio = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            int antes = enemies.size();
+            world.atualizar(FIXED_DELTA);
+            piorTick = Math.max(piorTick, enemies.size() - antes);
+            if (ticksAteCriar < 0 && world.getDiretorSpawn().getInimigosPendentes() == 0) {
+                ticksAteCriar = tick + 1;
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("Onda: %d | Criados: %d | Ticks até criar: %d | Máximo por tick: %d (orçamento %d) | Limite: %d%n",
+                quantidade, enemies.size() - iniciais, ticksAteCriar, piorTick,
+                world.getDiretorSpawn().getOrcamentoPorTick(), world.getDiretorSpawn().getMaxInimigos());
+        imprimirResultado(world, ticks, segundos);
+    }
+
+    private static MetricsRegistry criarMetricas(GameWorld world, String arquivoMetricas) {
+        if (arquivoMetricas == null) {
+            return null;
+        }
+        MetricsRegistry metricas = new MetricsRegistry();
+        metricas.setAtivo(true);
+        world.setMetricas(metricas);
+        return metricas;
+    }
+
+    private static void imprimirResultado(GameWorld world, int ticks, double segundos) {
+        System.out.printf("Ticks por segundo: %.1f | Custo médio por tick: %.3f ms%n",
+                ticks / segundos, segundos * 1000.0 / ticks);
+        System.out.printf("Inimigos vivos: %d | Balas vivas: %d%n",
+                world.getInimigos().size(), world.getBalasAtivas());
+        System.out.printf("Assinatura do estado: %016x%n", assinatura(world));
+    }
+
+    private static void exportarMetricas(MetricsRegistry metricas, String arquivoMetricas) throws IOException {
+        if (metricas != null) {
+            for (String linha : metricas.resumo()) {
+                System.out.println(linha);
+            }
+            metricas.exportarCsv(Paths.get(arquivoMetricas + ".csv"));
+            metricas.exportarJson(Paths.get(arquivoMetricas + ".json"));
+        }
+    }
+
+    /**
+     * Resumo do estado final (player, inimigos e balas) em um único número.
+     * Execuções idênticas produzem a mesma assinatura.
+     */
+    static long assinatura(GameWorld world) {
+        Player player = world.getPlayer();
+        long h = 17;
+        h = h * 31 + Double.doubleToLongBits(player.x);
+        h = h * 31 + Double.doubleToLongBits(player.y);
+        h = h * 31 + player.health;
+        EnemyStore enemies = world.getInimigos();
+        for (int i = 0; i < enemies.size(); i++) {
+            h = h * 31 + Double.doubleToLongBits(enemies.x[i]);
+            h = h * 31 + Double.doubleToLongBits(enemies.y[i]);
+            h = h * 31 + Double.doubleToLongBits(enemies.health[i]);
+        }
+        BulletPool bullets = world.getBullets();
+        for (int i = 0; i < bullets.size(); i++) {
+            h = h * 31 + Double.doubleToLongBits(bullets.x[i]);
+            h = h * 31 + Double.doubleToLongBits(bullets.y[i]);
+        }
+        return h;
+    }
+    /**
+     * Gera uma entrada sintética: o jogador anda em círculos e atira
+     * periodicamente em uma direção que gira ao longo do tempo.
+     */
+    private static void simularEntrada(GameWorld world, int tick) {
+        int fase = (tick / 120) % 4;
+        world.setMovimento(fase == 0, fase == 2, fase == 3, fase == 1);
+
+        Player player = world.getPlayer();
+        if (tick % TICKS_ENTRE_TIROS == 0) {
+            double angulo = tick * 0.05;
+            world.atirarPlayer(player.x + Math.cos(angulo) * 100, player.y + Math.sin(angulo) * 100);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Classe HudLayer
+ * HUD (vida do jogador e tela de game over) desenhado em um Canvas
+ * próprio, sobreposto ao canvas do mundo. O HUD só muda quando a vida
+ * ou o fim de jogo mudam, então ele é redesenhado apenas nesses
+ * momentos, e só na parte que mudou; a cada frame o canvas do mundo
+ * desenha apenas o conteúdo do mundo.
+ */
+public class HudLayer {
+
+    // Posição e espaçamento dos corações de vida
+    private static final double MARGEM = 10;
+    private static final double LADO_CORACAO = 32;
+    private static final double PASSO_CORACAO = 35;
+
+    // Área do texto usado quando o sprite do coração não carrega
+    private static final double LARGURA_TEXTO = 200;
+    private static final double ALTURA_TEXTO = 30;
+
+    private final Canvas canvas;
+    private final GraphicsContext g;
+    private final double largura;
+    private final double altura;
+    private final Image imagemCoracao;
+
+    // Estado desenhado atualmente (vida -1 = nada desenhado ainda)
+    private int vidaDesenhada = -1;
+    private boolean gameOverDesenhado = false;
+
+    public HudLayer(double largura, double altura) {
+        this.largura = largura;
+        this.altura = altura;
+        canvas = new Canvas(largura, altura);
+        // Os cliques passam para a cena, como se o HUD não existisse
+        canvas.setMouseTransparent(true);
+        g = canvas.getGraphicsContext2D();
+        g.setImageSmoothing(false);
+
+        imagemCoracao = SpriteCache.get(Coracao.SPRITE, Coracao.TAMANHO, Coracao.TAMANHO);
+        if (imagemCoracao == null) {
+            System.err.println("ERRO CRÍTICO: Não foi possível carregar o sprite do coração.");
+        }
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Redesenha o HUD se a vida ou o fim de jogo mudaram desde o último frame.
+     * @return true se algo foi redesenhado
+     */
+    public boolean atualizar(int vida, boolean gameOver) {
+        if (gameOver != gameOverDesenhado) {
+            gameOverDesenhado = gameOver;
+            g.clearRect(0, 0, largura, altura);
+            if (gameOver) {
+                // Tela de game over cobre o mundo inteiro
+                g.setFill(Color.BLACK);
+                g.fillRect(0, 0, largura, altura);
+                g.setFill(Color.WHITE);
+                g.fillText("GAME OVER", largura / 2.0 - 40, altura / 2.0);
+                return true;
+            }
+            vidaDesenhada = -1;
+        }
+        if (gameOver || vida == vidaDesenhada) {
+            return false;
+        }
+        desenharVida(vida);
+        vidaDesenhada = vida;
+        return true;
+    }
+
+    /**
+     * Desenha a vida como corações, limpando apenas os corações que mudaram.
+     */
+    private void desenharVida(int vida) {
+        // Quantidade de corações que cabem na largura do HUD
+        int maximo = (int) ((largura - MARGEM) / PASSO_CORACAO);
+        int atual = Math.max(0, Math.min(vida, maximo));
+
+        if (imagemCoracao == null) {
+            // Fallback se a imagem do coração não carregar
+            g.clearRect(0, 0, LARGURA_TEXTO, ALTURA_TEXTO);
+            g.setFill(Color.WHITE);
+            g.fillText("Vida: " + vida, MARGEM, 20);
+            return;
+        }
+
+        int anterior = Math.max(0, Math.min(vidaDesenhada, maximo));
+        if (atual < anterior) {
+            // Perdeu vida: apaga só os corações do fim
+            g.clearRect(MARGEM + atual * PASSO_CORACAO, MARGEM, (anterior - atual) * PASSO_CORACAO, LADO_CORACAO);
+        }
+        for (int i = anterior; i < atual; i++) {
+            g.drawImage(imagemCoracao, MARGEM + i * PASSO_CORACAO, MARGEM, LADO_CORACAO, LADO_CORACAO);
+        }
+    }
+}
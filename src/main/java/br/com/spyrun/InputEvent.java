@@ -0,0 +1,42 @@
+package br.com.spyrun;
+
+/**
+ * Classe InputEvent
+ * Evento de entrada gerado pela thread do JavaFX e consumido pela
+ * thread da simulação no início do próximo tick.
+ */
+public final class InputEvent {
+
+    public enum Tipo {
+        // Tecla de direção pressionada ou solta
+        MOVIMENTO,
+        // Clique de disparo na posição (x, y) da tela
+        TIRO
+    }
+
+    public final Tipo tipo;
+
+    // Direção da tecla (apenas MOVIMENTO) e se foi pressionada ou solta
+    public final Player.Direction direcao;
+    public final boolean pressionada;
+
+    // Posição do mouse na tela (apenas TIRO)
+    public final double x;
+    public final double y;
+
+    private InputEvent(Tipo tipo, Player.Direction direcao, boolean pressionada, double x, double y) {
+        this.tipo = tipo;
+        this.direcao = direcao;
+        this.pressionada = pressionada;
+        this.x = x;
+        this.y = y;
+    }
+
+    public static InputEvent movimento(Player.Direction direcao, boolean pressionada) {
+        return new InputEvent(Tipo.MOVIMENTO, direcao, pressionada, 0, 0);
+    }
+
+    public static InputEvent tiro(double telaX, double telaY) {
+        return new InputEvent(Tipo.TIRO, null, false, telaX, telaY);
+    }
+}
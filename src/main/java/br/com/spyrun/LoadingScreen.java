@@ -0,0 +1,59 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Classe LoadingScreen
+ * Tela exibida enquanto o {@link AssetManager} carrega os recursos
+ * essenciais: fundo preto, texto e uma barra de progresso. Só é
+ * redesenhada quando o progresso muda.
+ */
+public class LoadingScreen {
+
+    // Tamanho da barra de progresso
+    private static final double LARGURA_BARRA = 300;
+    private static final double ALTURA_BARRA = 12;
+
+    private final Canvas canvas;
+    private final GraphicsContext g;
+    private final double largura;
+    private final double altura;
+
+    // Progresso desenhado atualmente (-1 = nada desenhado ainda)
+    private double progressoDesenhado = -1;
+
+    public LoadingScreen(double largura, double altura) {
+        this.largura = largura;
+        this.altura = altura;
+        canvas = new Canvas(largura, altura);
+        g = canvas.getGraphicsContext2D();
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Redesenha a tela se o progresso mudou.
+     * @param progresso fração carregada (0 a 1)
+     */
+    public void atualizar(double progresso) {
+        if (progresso == progressoDesenhado) {
+            return;
+        }
+        progressoDesenhado = progresso;
+
+        g.setFill(Color.BLACK);
+        g.fillRect(0, 0, largura, altura);
+        g.setFill(Color.WHITE);
+        g.fillText("Carregando...", largura / 2.0 - 35, altura / 2.0 - 15);
+
+        double x = (largura - LARGURA_BARRA) / 2.0;
+        double y = altura / 2.0;
+        g.setStroke(Color.WHITE);
+        g.strokeRect(x, y, LARGURA_BARRA, ALTURA_BARRA);
+        g.fillRect(x, y, LARGURA_BARRA * Math.max(0, Math.min(1, progresso)), ALTURA_BARRA);
+    }
+}
@@ -2,27 +2,50 @@ package br.com.spyrun;
 
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import javafx.scene.image.Image;
-import javafx.scene.shape.Rectangle;
 
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Classe principal do jogo.
- * Responsável por inicializar a janela, configurar controles,
- * gerenciar o loop de jogo (update/desenho) e controlar player,
- * inimigos, balas e câmera.
+ * Responsável por inicializar a janela, configurar controles
+ * e desenhar os frames: a simulação ({@link GameWorld}) roda em uma
+ * {@link SimulationThread} própria e a thread do JavaFX apenas envia
+ * entradas e desenha, com o {@link GameRenderer}, o último
+ * {@link WorldSnapshot} publicado.
+ *
+ * Parâmetros opcionais: {@code --semente=N} fixa a semente do mundo,
+ * {@code --gravar=arquivo} grava a partida, {@code --replay=arquivo}
+ * reproduz uma partida gravada na janela (no mapa em que ela foi
+ * gravada) e {@code --mapa=arquivo} usa outro mapa no lugar do
+ * escritório padrão ({@code .mapa} em texto ou {@code .mapb} compilado,
+ * carregado por chunks).
+ *
+ * Os recursos são carregados em segundo plano pelo {@link AssetManager},
+ * com uma tela de carregamento; o jogo começa assim que os essenciais
+ * (sprites do atlas e mapa) ficam prontos.
+ *
+ * Para máquinas mais fracas: {@code --escala=0.5} desenha o mundo em
+ * resolução menor e amplia na janela, {@code --fps=30} limita os frames
+ * por segundo e {@code --adaptativa=false} desliga a redução automática
+ * da escala quando o frame estoura o orçamento (ver {@link RenderQuality}).
  */
 public class Main extends Application {
 
@@ -30,485 +53,414 @@ public class Main extends Application {
     private static final int VIEW_WIDTH = 960;
     private static final int VIEW_HEIGHT = 640;
 
-    // Dimensões do mundo lógico (maior que a tela)
-    private static final int WORLD_WIDTH = 2000;
-    private static final int WORLD_HEIGHT = 2000;
-
-    // Intervalo em segundos para gerar novos inimigos
-    private static final double ENEMY_SPAWN_INTERVAL = 5.0;
+    // Frequência fixa da simulação (ticks por segundo)
+    private static final double SIMULATION_HZ = 60.0;
+    private static final double FIXED_DELTA = 1.0 / SIMULATION_HZ;
 
     private Canvas canvas;
     private GraphicsContext g;
 
-    // Referência ao jogador
-    private Player player;
+    // Simulação do jogo (player, inimigos, balas, corações e mapa)
+    private GameWorld world;
 
-    // Flags de controle de movimento
-    private boolean up, down, left, right;
+    // Thread da simulação e troca de snapshots com a thread do JavaFX
+    private SimulationThread simulacao;
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
 
-    // Coordenadas do mouse na tela
-    private double mouseX, mouseY;
+    // Responsável por desenhar o mundo no canvas, na escala escolhida
+    private ScaledRenderer renderer;
 
-    // Flag de disparo (um tiro por clique)
-    private boolean shooting;
+    // Limite de FPS e escala de renderização (fixa ou adaptativa)
+    private RenderQuality qualidade;
 
-    // Listas de balas, inimigos e corações ativos
-    private final List<Bullet> bullets = new ArrayList<>();
-    private final List<Enemy> enemies = new ArrayList<>();
-    private final List<MapObject> mapObjects = new ArrayList<>();
-    private final List<Coracao> coracoes = new ArrayList<>();
+    // HUD em um canvas próprio, por cima do mundo
+    private HudLayer hud;
 
-    // Sprites
-    private Image imagemCoracao;
+    // Carregamento dos recursos e tela exibida enquanto ele acontece
+    private AssetManager ativos;
+    private LoadingScreen telaCarregamento;
 
-    // Controle de tempo entre frames
-    private long lastTime = 0;
+    // Hash do mapa em uso, gravado no cabeçalho com --gravar
+    private long hashMapa;
 
-    // Indica se o jogo terminou
-    private boolean gameOver = false;
+    // Instante em que start foi chamado, para medir o tempo até o primeiro frame do jogo
+    // (registrado uma vez na série "primeiro.frame" das métricas)
+    private long inicioNanos;
+    private boolean primeiroFrame = true;
 
-    // Temporizadores para spawn de novos inimigos e corações
-    private double enemySpawnTimer = 0;
-    private double temporizadorSpawnCoracao = 0;
+    // Métricas de desempenho (F3 liga/desliga o painel, F4 exporta o histórico)
+    private final MetricsRegistry metricas = new MetricsRegistry();
+    private MetricsOverlay painelMetricas;
+    private MetricsRegistry.Serie serieDesenho, serieAlocacaoFrame, serieEscala, seriePrimeiroFrame;
 
-    private final Random random = new Random();
+    // Exportação do histórico em andamento (F4 repetido é ignorado até ela terminar)
+    private boolean exportando;
 
-    // Posição da câmera no mundo
-    private double cameraX, cameraY;
-    private OfficeMap officeMap;
+    // Instante da última consolidação do histórico de métricas
+    private long ultimaConsolidacao;
+
+    // Intervalo entre consolidações do histórico de métricas
+    private static final long INTERVALO_CONSOLIDACAO_NANOS = 1_000_000_000L;
 
 
     @Override
     public void start(Stage stage) {
-        // Cria o canvas de desenho com o tamanho da janela
-        canvas = new Canvas(VIEW_WIDTH, VIEW_HEIGHT);
-        g = canvas.getGraphicsContext2D();
-        g.setImageSmoothing(false);
+        inicioNanos = System.nanoTime();
+        Map<String, String> parametros = getParameters().getNamed();
 
-        // Carrega a imagem do coração
+        // Parâmetros de desenho validados antes de abrir a janela
         try {
-            imagemCoracao = new Image(getClass().getResourceAsStream("/sprites/heart.svg"), 32, 32, true, true);
-        } catch (Exception e) {
-            System.err.println("ERRO CRÍTICO: Não foi possível carregar o sprite do coração.");
-            imagemCoracao = null;
-        }
-
-        // Instancia o jogador no centro do mundo
-        player = new Player(WORLD_WIDTH / 2.0, WORLD_HEIGHT / 2.0);
-
-        // Cria alguns inimigos iniciais em posições diferentes
-        enemies.add(new Enemy(400, 400));
-        enemies.add(new Enemy(1600, 1600));
-        enemies.add(new Enemy(1600, 400));
-
-        // Gera alguns corações iniciais
-        for (int i = 0; i < 3; i++) {
-            gerarCoracao();
+            qualidade = new RenderQuality(
+                    lerEscala(parametros.getOrDefault("escala", "1")),
+                    lerFps(parametros.getOrDefault("fps", "0")),
+                    lerBooleano("adaptativa", parametros.getOrDefault("adaptativa", "true")));
+        } catch (IllegalArgumentException e) {
+            encerrar(e.getMessage());
+            return;
         }
 
-        // Adiciona objetos de colisão (paredes, mesas, etc.)
-        // Paredes
-
-        // Mesas
-        mapObjects.add(new MapObject(400, 400, 150, 80, Color.web("8B4513")));
-        mapObjects.add(new MapObject(800, 600, 150, 80, Color.web("8B4513")));
-        mapObjects.add(new MapObject(1200, 400, 150, 80, Color.web("8B4513")));
-        mapObjects.add(new MapObject(400, 1000, 150, 80, Color.web("8B4513")));
-        mapObjects.add(new MapObject(800, 1200, 150, 80, Color.web("8B4513")));
-        mapObjects.add(new MapObject(1200, 1000, 150, 80, Color.web("8B4513")));
-        
-        officeMap = new OfficeMap(mapObjects);
-
-        // Monta a cena com o canvas como raiz
-        StackPane root = new StackPane(canvas);
+        // Mostra a janela com a tela de carregamento antes de qualquer recurso
+        telaCarregamento = new LoadingScreen(VIEW_WIDTH, VIEW_HEIGHT);
+        telaCarregamento.atualizar(0);
+        StackPane root = new StackPane(telaCarregamento.getCanvas());
         root.setStyle("-fx-background-color: transparent;");
         Scene scene = new Scene(root);
         scene.setFill(Color.TRANSPARENT);
-
-        // Configuração dos controles de teclado e mouse
-        configurarControles(scene);
-
         stage.setScene(scene);
         stage.setTitle("SpyRun - Protótipo Shooter");
         stage.show();
 
-        // Inicia o loop principal do jogo
-        iniciarLoop();
-    }
-
-    /**
-     * Configura as entradas de teclado (WASD) e mouse (clique para atirar).
-     */
-    private void configurarControles(Scene scene) {
-
-        // Pressionar tecla: ativa a direção correspondente
-        scene.setOnKeyPressed(e -> {
-            if (e.getCode() == KeyCode.W) { up = true; player.direction = Player.Direction.UP; }
-            if (e.getCode() == KeyCode.S) { down = true; player.direction = Player.Direction.DOWN; }
-            if (e.getCode() == KeyCode.A) { left = true; player.direction = Player.Direction.LEFT; }
-            if (e.getCode() == KeyCode.D) { right = true; player.direction = Player.Direction.RIGHT; }
-        });
-    
-        // Soltar tecla: desativa a direção correspondente
-        scene.setOnKeyReleased(e -> {
-            if (e.getCode() == KeyCode.W) up = false;
-            if (e.getCode() == KeyCode.S) down = false;
-            if (e.getCode() == KeyCode.A) left = false;
-            if (e.getCode() == KeyCode.D) right = false;
-        }); 
-
-        // Disparo do jogador: um tiro por clique do mouse esquerdo
-        scene.setOnMousePressed(e -> {
-            if (e.getButton() == MouseButton.PRIMARY && !gameOver) {
-                shooting = true;
-                atirarPlayerEmDirecaoAoMouse();
+        // Replay a reproduzir (opcional); a semente do mundo vem dele
+        ReplayReader replay = null;
+        long semente;
+        if (parametros.containsKey("replay")) {
+            try {
+                replay = new ReplayReader(Paths.get(parametros.get("replay")));
+            } catch (NoSuchFileException e) {
+                encerrar("Arquivo de replay não encontrado: " + e.getFile());
+                return;
+            } catch (IOException e) {
+                encerrar("Não foi possível abrir o replay: " + e.getMessage());
+                return;
             }
-        });
-
-        // Quando soltar o botão do mouse, para de considerar o disparo
-        scene.setOnMouseReleased(e -> {
-            if (e.getButton() == MouseButton.PRIMARY) {
-                shooting = false;
+            if (replay.getViewWidth() != VIEW_WIDTH || replay.getViewHeight() != VIEW_HEIGHT
+                    || replay.getHz() != SIMULATION_HZ) {
+                System.err.println("Aviso: replay gravado com outra janela ou frequência; a reprodução pode divergir.");
             }
-        });
+            if (parametros.containsKey("mapa")) {
+                System.err.println("Aviso: --mapa ignorado; o replay usa o mapa em que foi gravado.");
+            }
+            semente = replay.getSemente();
+        } else if (parametros.containsKey("semente")) {
+            try {
+                semente = Long.parseLong(parametros.get("semente"));
+            } catch (NumberFormatException e) {
+                encerrar("--semente deve ser um número inteiro: " + parametros.get("semente"));
+                return;
+            }
+        } else {
+            semente = System.nanoTime();
+        }
 
-        // Atualiza a posição do mouse sempre que ele se mover
-        scene.setOnMouseMoved(e -> {
-            mouseX = e.getSceneX();
-            mouseY = e.getSceneY();
+        // Sprites decodificados em paralelo e atlas montado quando eles terminarem
+        ativos = new AssetManager();
+        List<CompletableFuture<Image>> sprites = new ArrayList<>();
+        for (String sprite : SpriteAtlas.sprites()) {
+            sprites.add(ativos.imagem(sprite, 0, 0));
+        }
+        sprites.add(ativos.imagem(Coracao.SPRITE, Coracao.TAMANHO, Coracao.TAMANHO));
+        double escalaInicial = qualidade.getEscala();
+        ativos.tarefaApos(sprites, () -> SpriteAtlas.obter(escalaInicial));
+
+        // Cria o mundo com o mapa do replay, o escolhido ou o escritório
+        // padrão; a partir daqui ele só é acessado pela thread da simulação
+        ReplayReader reprodutor = replay;
+        CompletableFuture<GameWorld> mundo = ativos.tarefa(() -> {
+            OfficeMap mapa;
+            if (reprodutor != null) {
+                mapa = reprodutor.carregarMapa();
+            } else {
+                Path arquivoMapa = parametros.containsKey("mapa") ? Paths.get(parametros.get("mapa")) : null;
+                mapa = arquivoMapa != null ? OfficeMap.carregar(arquivoMapa) : OfficeMap.criarEscritorioPadrao();
+                if (parametros.containsKey("gravar")) {
+                    hashMapa = OfficeMap.hashConteudo(arquivoMapa);
+                }
+            }
+            return new GameWorld(mapa, VIEW_WIDTH, VIEW_HEIGHT, new Random(semente));
         });
-    }
 
-    /**
-     * Cria e inicia o AnimationTimer, responsável por chamar
-     * atualizar() e desenhar() a cada frame.
-     */
-    private void iniciarLoop() {
-        AnimationTimer timer = new AnimationTimer() {
+        // Atualiza a tela de carregamento até os recursos essenciais ficarem prontos
+        AnimationTimer carregamento = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                // Inicialização do lastTime
-                if (lastTime == 0) {
-                    lastTime = now;
-                    return;
-                }
-                // Cálculo de delta (segundos entre frames)
-                double delta = (now - lastTime) / 1_000_000_000.0;
-                lastTime = now;
-
-                atualizar(delta);
-                desenhar();
+                telaCarregamento.atualizar(ativos.getProgresso());
             }
         };
-        timer.start();
-    }
-
-    private void checkAndApplyEntityMovement(Movable entity, double dx, double dy) {
-        double oldX = entity.getX();
-        double oldY = entity.getY();
-
-        entity.setX(oldX + dx);
-        entity.setY(oldY + dy);
-
-        for (MapObject obj : mapObjects) {
-            Rectangle objBounds = obj.getBounds();
-            if (entity.getBounds().intersects(objBounds.getX(), objBounds.getY(), objBounds.getWidth(), objBounds.getHeight())) {
-                entity.setX(oldX);
-                entity.setY(oldY);
-                break;
+        carregamento.start();
+
+        ativos.aoConcluir(() -> {
+            carregamento.stop();
+            try {
+                iniciarJogo(scene, parametros, mundo.join(), reprodutor, semente);
+            } catch (IOException e) {
+                falhar(e);
             }
+        }, erro -> {
+            carregamento.stop();
+            falhar(erro);
+        });
+
+        // Atlas das escalas menores, usados pela qualidade adaptativa
+        for (double escala : qualidade.getEscalas()) {
+            ativos.secundaria(() -> SpriteAtlas.obter(escala));
         }
     }
 
     /**
-     * Atualiza o estado do jogo:
-     * - movimenta o jogador
-     * - atualiza inimigos e disparos
-     * - verifica colisões
-     * - gerencia spawn de novos inimigos
+     * Monta o jogo depois que os recursos essenciais foram carregados:
+     * troca a tela de carregamento pelos canvas do mundo e do HUD e inicia
+     * a simulação e o loop de desenho.
      */
-    private void atualizar(double delta) {
-        if (gameOver) {
-            // Se o jogo acabou, não atualiza mais lógica
-            return;
-        }
-
-        // Movimentação do jogador
-        double dx = 0, dy = 0;
-        if (up) dy -= 1;
-        if (down) dy += 1;
-        if (left) dx -= 1;
-        if (right) dx += 1;
-
-        double len = Math.sqrt(dx * dx + dy * dy);
-        if (len > 0) {
-            dx = (dx / len) * player.speed * delta;
-            dy = (dy / len) * player.speed * delta;
-            checkAndApplyEntityMovement(player, dx, dy);
-        }
-
-        // Mantém o jogador dentro dos limites do mundo
-        player.x = Math.max(0, Math.min(WORLD_WIDTH, player.x));
-        player.y = Math.max(0, Math.min(WORLD_HEIGHT, player.y));
-
-        // Atualiza a posição da câmera para centralizar o player
-        cameraX = player.x - VIEW_WIDTH / 2.0;
-        cameraY = player.y - VIEW_HEIGHT / 2.0;
-
-        // Limita a câmera para não mostrar fora do mundo
-        cameraX = Math.max(0, Math.min(WORLD_WIDTH - VIEW_WIDTH, cameraX));
-        cameraY = Math.max(0, Math.min(WORLD_HEIGHT - VIEW_HEIGHT, cameraY));
-
-        // Atualiza cada inimigo: movimento + tiro automático
-        for (Enemy enemy : enemies) {
-            if (enemy.alive) {
-                // Calcula a direção do movimento do inimigo
-                double enemyDX = player.x - enemy.x;
-                double enemyDY = player.y - enemy.y;
-                double enemyLen = Math.sqrt(enemyDX * enemyDX + enemyDY * enemyDY);
-
-                if (enemyLen > 0) {
-                    // Define a direção do sprite do inimigo
-                    if (Math.abs(enemyDX) > Math.abs(enemyDY)) {
-                        enemy.direction = (enemyDX > 0) ? Player.Direction.RIGHT : Player.Direction.LEFT;
-                    } else {
-                        enemy.direction = (enemyDY > 0) ? Player.Direction.DOWN : Player.Direction.UP;
-                    }
-
-                    enemyDX = (enemyDX / enemyLen) * enemy.speed * delta;
-                    enemyDY = (enemyDY / enemyLen) * enemy.speed * delta;
-                    checkAndApplyEntityMovement(enemy, enemyDX, enemyDY);
-                }
+    private void iniciarJogo(Scene scene, Map<String, String> parametros, GameWorld mundo,
+                             ReplayReader replay, long semente) throws IOException {
+        // Cria o canvas de desenho com o tamanho da janela
+        canvas = new Canvas(VIEW_WIDTH, VIEW_HEIGHT);
+        g = canvas.getGraphicsContext2D();
+        renderer = new ScaledRenderer(g, VIEW_WIDTH, VIEW_HEIGHT);
+        hud = new HudLayer(VIEW_WIDTH, VIEW_HEIGHT);
 
-                enemy.update(delta, player);
-                if (enemy.alive && enemy.readyToShoot()) {
-                    atirarInimigo(enemy);
-                }
-            }
+        world = mundo;
+        simulacao = new SimulationThread(world, snapshots, SIMULATION_HZ, VIEW_WIDTH, VIEW_HEIGHT);
+        if (replay != null) {
+            simulacao.setReprodutor(replay);
         }
-
-        // Atualiza posição das balas ativas
-        for (Bullet b : bullets) {
-            if (b.alive) {
-                b.update(delta);
-            }
+        if (parametros.containsKey("gravar")) {
+            simulacao.setGravador(new ReplayRecorder(Paths.get(parametros.get("gravar")),
+                    semente, SIMULATION_HZ, VIEW_WIDTH, VIEW_HEIGHT,
+                    parametros.getOrDefault("mapa", ""), hashMapa));
         }
+        simulacao.setMetricas(metricas);
+        painelMetricas = new MetricsOverlay(metricas);
+        serieDesenho = metricas.serie("desenho", MetricsRegistry.Unidade.NANOS);
+        serieAlocacaoFrame = metricas.serie("alocacao.frame", MetricsRegistry.Unidade.BYTES);
+        // Escala de renderização em porcentagem
+        serieEscala = metricas.serie("escala.render", MetricsRegistry.Unidade.CONTAGEM);
+        seriePrimeiroFrame = metricas.serie("primeiro.frame", MetricsRegistry.Unidade.NANOS);
+
+        // Troca a tela de carregamento pelo canvas do mundo e, por cima, o do HUD
+        StackPane root = new StackPane(canvas, hud.getCanvas());
+        root.setStyle("-fx-background-color: transparent;");
+        scene.setRoot(root);
+        telaCarregamento = null;
 
-        // Verifica colisões entre balas, inimigos e jogador
-        checarColisoes();
-
-        // Remove balas e inimigos mortos/inativos das listas
-        bullets.removeIf(b -> !b.alive);
-        enemies.removeIf(e -> !e.alive);
-
-        // Atualiza temporizador de spawn de inimigos
-        enemySpawnTimer += delta;
-        if (enemySpawnTimer >= ENEMY_SPAWN_INTERVAL) {
-            enemySpawnTimer = 0;
-            spawnEnemy();
-        }
+        // Configuração dos controles de teclado e mouse
+        configurarControles(scene);
 
-        // Atualiza temporizador de spawn de corações
-        temporizadorSpawnCoracao += delta;
-        if (temporizadorSpawnCoracao >= 10.0) { // A cada 10 segundos
-            temporizadorSpawnCoracao = 0;
-            gerarCoracao();
-        }
+        // Inicia a simulação e o loop de desenho
+        simulacao.iniciar();
+        iniciarLoop();
     }
 
     /**
-     * Verifica colisões entre:
-     * - balas do player e inimigos
-     * - balas dos inimigos e o jogador
-     * - jogador e corações de vida
-     * Aplica dano e trata morte / fim de jogo.
+     * Encerra o jogo com uma mensagem quando um parâmetro de linha de
+     * comando (ou o replay indicado nele) é inválido.
      */
-    private void checarColisoes() {
-        for (Bullet b : bullets) {
-            if (!b.alive) continue;
-
-            if (b.owner == Shooter.PLAYER) {
-                // Colisão da bala do player com cada inimigo
-                for (Enemy e : enemies) {
-                    if (!e.alive) continue;
-                    double dist2 = (b.x - e.x) * (b.x - e.x) + (b.y - e.y) * (b.y - e.y);
-                    // Raio de colisão aproximado (20 pixels)
-                    if (dist2 < 20 * 20) {
-                        b.alive = false;
-                        boolean morto = e.takeDamage(b.damage);
-                        if (morto) {
-                            e.alive = false;
-                        }
-                    }
-                }
-            } else if (b.owner == Shooter.ENEMY) {
-                // Colisão da bala do inimigo com o jogador
-                double dist2 = (b.x - player.x) * (b.x - player.x) + (b.y - player.y) * (b.y - player.y);
-                // Raio de colisão menor para o player (15 pixels)
-                if (dist2 < 15 * 15) {
-                    b.alive = false;
-                    boolean morto = player.takeDamage(b.damage);
-                    if (morto) {
-                        gameOver = true;
-                    }
-                }
-            }
-        }
+    private static void encerrar(String mensagem) {
+        System.err.println(mensagem);
+        Platform.exit();
+    }
 
-        // Colisão com corações de vida
-        Iterator<Coracao> coracaoIterator = coracoes.iterator();
-        while (coracaoIterator.hasNext()) {
-            Coracao coracao = coracaoIterator.next();
-            Rectangle coracaoBounds = coracao.getBounds();
-            if (player.getBounds().intersects(coracaoBounds.getX(), coracaoBounds.getY(), coracaoBounds.getWidth(), coracaoBounds.getHeight())) {
-                if (player.health < Player.VIDA_MAXIMA) {
-                    player.curar();
-                }
-                coracaoIterator.remove(); // Remove o coração de forma segura
+    /**
+     * @return a escala de {@code --escala}, maior que 0 e no máximo 1
+     * @throws IllegalArgumentException com a mensagem para o usuário
+     */
+    private static double lerEscala(String texto) {
+        try {
+            double escala = Double.parseDouble(texto);
+            if (escala > 0 && escala <= 1) {
+                return escala;
             }
+        } catch (NumberFormatException e) {
+            // mensagem abaixo
         }
+        throw new IllegalArgumentException("--escala deve ser um número maior que 0 e no máximo 1: " + texto);
     }
 
     /**
-     * Cria uma bala a partir da posição do player em direção ao cursor do mouse.
+     * @return o limite de {@code --fps} (0 = sem limite)
+     * @throws IllegalArgumentException com a mensagem para o usuário
      */
-    private void atirarPlayerEmDirecaoAoMouse() {
-        // Converte a posição do mouse (coordenadas de tela) para o mundo
-        double mouseWorldX = mouseX + cameraX;
-        double mouseWorldY = mouseY + cameraY;
-
-        // Calcula a direção do player para o mouse
-        double dirX = mouseWorldX - player.x;
-        double dirY = mouseWorldY - player.y;
-
-        // Cria a bala
-        Bullet b = new Bullet(player.x, player.y, dirX, dirY, Shooter.PLAYER);
-        if (b.alive) {
-            bullets.add(b);
+    private static int lerFps(String texto) {
+        try {
+            int fps = Integer.parseInt(texto);
+            if (fps >= 0) {
+                return fps;
+            }
+        } catch (NumberFormatException e) {
+            // mensagem abaixo
         }
+        throw new IllegalArgumentException("--fps deve ser um inteiro maior ou igual a 0 (0 = sem limite): " + texto);
     }
 
     /**
-     * Cria uma bala a partir de um inimigo em direção ao player.
+     * @return o valor de um parâmetro que aceita apenas true ou false
+     * @throws IllegalArgumentException com a mensagem para o usuário
      */
-    private void atirarInimigo(Enemy enemy) {
-        double dirX = player.x - enemy.x;
-        double dirY = player.y - enemy.y;
-        Bullet b = new Bullet(enemy.x, enemy.y, dirX, dirY, Shooter.ENEMY);
-        if (b.alive) {
-            bullets.add(b);
+    private static boolean lerBooleano(String nome, String texto) {
+        if (texto.equalsIgnoreCase("true") || texto.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(texto);
         }
+        throw new IllegalArgumentException("--" + nome + " deve ser true ou false: " + texto);
     }
 
     /**
-     * Gera um novo inimigo em uma posição aleatória do mundo.
+     * Encerra o jogo quando um recurso essencial não pôde ser carregado.
      */
-    private void spawnEnemy() {
-        double x = random.nextDouble() * WORLD_WIDTH;
-        double y = random.nextDouble() * WORLD_HEIGHT;
-        enemies.add(new Enemy(x, y));
+    private void falhar(Throwable erro) {
+        System.err.println("Não foi possível iniciar o jogo: " + erro);
+        Platform.exit();
     }
 
-    /**
-     * Gera um novo coração em uma posição aleatória do mundo.
-     */
-    private void gerarCoracao() {
-        if (imagemCoracao != null) {
-            double x = random.nextDouble() * WORLD_WIDTH;
-            double y = random.nextDouble() * WORLD_HEIGHT;
-            coracoes.add(new Coracao(x, y, imagemCoracao));
+    @Override
+    public void stop() {
+        if (simulacao != null) {
+            simulacao.parar();
+        }
+        if (ativos != null) {
+            ativos.encerrar();
         }
     }
 
     /**
-     * Responsável por desenhar todo o estado do jogo na tela:
-     * fundo, grade, player, inimigos, balas, HUD e tela de game over.
+     * Configura as entradas de teclado (WASD) e mouse (clique para atirar).
+     * As entradas são enviadas como eventos para a thread da simulação.
+     * F3 liga/desliga as métricas de desempenho e F4 exporta o histórico.
      */
-    private void desenhar() {
-        // Preenche o fundo com um cinza para o chão do escritório
-        g.setFill(Color.rgb(180, 180, 180));
-        g.fillRect(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
-    
-        // Desenha os objetos do mapa (paredes, mesas)
-        officeMap.draw(g, cameraX, cameraY);
-        // Converte posição do player para coordenadas de tela
-        double playerScreenX = player.x - cameraX;
-        double playerScreenY = player.y - cameraY;
-
-        // Desenha o sprite do player
-        Image playerImage = player.getImage();
-        if (playerImage != null) {
-            double w = 32;
-            double h = 32;
-            g.drawImage(playerImage, playerScreenX - w / 2, playerScreenY - h / 2, w, h);
-        } else {
-            // Desenha um círculo azul se o sprite não puder ser carregado
-            g.setFill(Color.DARKBLUE);
-            g.fillOval(playerScreenX - 15, playerScreenY - 15, 30, 30);
-        }
+    private void configurarControles(Scene scene) {
 
-        // Desenha inimigos e suas barras de vida
-        for (Enemy e : enemies) {
-            double ex = e.x - cameraX;
-            double ey = e.y - cameraY;
-
-            // Desenha o sprite do inimigo
-            Image enemyImage = e.getImage();
-            if (enemyImage != null) {
-                double w = 32;
-                double h = 32;
-                g.drawImage(enemyImage, ex - w / 2, ey - h / 2, w, h);
-            } else {
-                // Fallback para desenhar um retângulo se o sprite não carregar
-                g.setFill(Color.CRIMSON);
-                g.fillRect(ex - 15, ey - 15, 30, 30);
-            }
+        // Pressionar tecla: ativa a direção correspondente
+        scene.setOnKeyPressed(e -> {
+            Player.Direction direcao = direcaoDaTecla(e.getCode());
+            if (direcao != null) simulacao.enviar(InputEvent.movimento(direcao, true));
+            if (e.getCode() == KeyCode.F3) metricas.alternar();
+            if (e.getCode() == KeyCode.F4) exportarMetricas();
+        });
 
-            // Barra de vida (fundo branco)
-            g.setFill(Color.WHITE);
-            g.fillRect(ex - 15, ey - 25, 30, 4);
+        // Soltar tecla: desativa a direção correspondente
+        scene.setOnKeyReleased(e -> {
+            Player.Direction direcao = direcaoDaTecla(e.getCode());
+            if (direcao != null) simulacao.enviar(InputEvent.movimento(direcao, false));
+        });
 
-            // Parte vermelha proporcional à vida atual
-            g.setFill(Color.RED);
-            double lifeWidth = Math.max(0, Math.min(30, (e.health / 100.0) * 30));
-            g.fillRect(ex - 15, ey - 25, lifeWidth, 4);
-        }
+        // Disparo do jogador: um tiro por clique do mouse esquerdo,
+        // convertido para o mundo pela simulação com a câmera do tick
+        scene.setOnMousePressed(e -> {
+            if (e.getButton() == MouseButton.PRIMARY) {
+                simulacao.enviar(InputEvent.tiro(e.getSceneX(), e.getSceneY()));
+            }
+        });
+    }
 
-        // Desenha as balas em verde
-        g.setFill(Color.LIME);
-        for (Bullet b : bullets) {
-            double bx = b.x - cameraX;
-            double by = b.y - cameraY;
-            g.fillOval(bx - 4, by - 4, 8, 8);
+    /**
+     * Mapeia as teclas WASD para direções.
+     * @return a direção ou null se a tecla não controla o movimento
+     */
+    private static Player.Direction direcaoDaTecla(KeyCode code) {
+        switch (code) {
+            case W: return Player.Direction.UP;
+            case S: return Player.Direction.DOWN;
+            case A: return Player.Direction.LEFT;
+            case D: return Player.Direction.RIGHT;
+            default: return null;
         }
+    }
 
-        // Desenha os corações de vida no mapa
-        for (Coracao coracao : coracoes) {
-            coracao.draw(g, cameraX, cameraY);
-        }
+    /**
+     * Cria e inicia o AnimationTimer, responsável por desenhar a cada
+     * frame o snapshot mais recente. A interpolação usa o tempo decorrido
+     * desde que esse snapshot foi publicado, em frações de FIXED_DELTA.
+     * Pulsos além do limite de FPS são ignorados, e a duração de cada
+     * frame alimenta a escolha da escala de renderização.
+     */
+    private void iniciarLoop() {
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (!qualidade.deveDesenhar(now)) {
+                    return;
+                }
+                boolean medir = metricas.isAtivo();
+                long inicio = System.nanoTime();
+                long bytesInicio = medir ? MetricsRegistry.bytesAlocadosThreadAtual() : 0;
+
+                WorldSnapshot snapshot = snapshots.paraLeitura();
+                double decorrido = (inicio - snapshot.tempoTickNanos) / 1_000_000_000.0;
+                double alpha = Math.max(0, Math.min(1, decorrido / FIXED_DELTA));
+
+                // O HUD só é redesenhado quando muda; com a tela de game
+                // over cobrindo tudo, o mundo não precisa ser desenhado
+                hud.atualizar(snapshot.playerHealth, snapshot.gameOver);
+                if (!snapshot.gameOver) {
+                    renderer.desenhar(snapshot, alpha, qualidade.getEscala());
+                }
+                qualidade.registrarFrame(now, System.nanoTime() - inicio);
+                if (primeiroFrame) {
+                    primeiroFrame = false;
+                    seriePrimeiroFrame.registrar(System.nanoTime() - inicioNanos);
+                }
 
-        // HUD: exibe vida do jogador como corações
-        if (imagemCoracao != null) {
-            for (int i = 0; i < player.health; i++) {
-                g.drawImage(imagemCoracao, 10 + (i * 35), 10, 32, 32);
+                if (medir) {
+                    serieDesenho.registrar(System.nanoTime() - inicio);
+                    if (bytesInicio >= 0) {
+                        serieAlocacaoFrame.registrar(MetricsRegistry.bytesAlocadosThreadAtual() - bytesInicio);
+                    }
+                    serieEscala.registrar(Math.round(qualidade.getEscala() * 100));
+                    if (inicio - ultimaConsolidacao >= INTERVALO_CONSOLIDACAO_NANOS) {
+                        ultimaConsolidacao = inicio;
+                        metricas.consolidar();
+                    }
+                    painelMetricas.desenhar(g, VIEW_WIDTH);
+                }
             }
-        } else {
-            // Fallback se a imagem do coração não carregar
-            g.setFill(Color.WHITE);
-            g.fillText("Vida: " + player.health, 10, 20);
-        }
+        };
+        timer.start();
+    }
 
-        // Tela de Game Over
-        if (gameOver) {
-            g.setFill(Color.BLACK);
-            g.fillRect(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
-            g.setFill(Color.WHITE);
-            g.fillText("GAME OVER", VIEW_WIDTH / 2.0 - 40, VIEW_HEIGHT / 2.0);
+    /**
+     * Grava o histórico de métricas em CSV e JSON no diretório atual.
+     * A escrita roda em uma thread de fundo, para não travar o desenho,
+     * e o resultado é informado de volta na thread do JavaFX.
+     */
+    private void exportarMetricas() {
+        if (exportando) {
+            System.out.println("Exportação de métricas já em andamento");
+            return;
         }
+        exportando = true;
+        String base = "metricas-" + System.currentTimeMillis();
+        Thread exportacao = new Thread(() -> {
+            IOException falha = null;
+            try {
+                metricas.exportarCsv(Paths.get(base + ".csv"));
+                metricas.exportarJson(Paths.get(base + ".json"));
+            } catch (IOException e) {
+                falha = e;
+            }
+            IOException erro = falha;
+            Platform.runLater(() -> {
+                exportando = false;
+                if (erro == null) {
+                    System.out.println("Métricas exportadas em " + base + ".csv e " + base + ".json");
+                } else {
+                    System.err.println("Não foi possível exportar as métricas: " + erro.getMessage());
+                }
+            });
+        }, "metricas-exportacao");
+        exportacao.setDaemon(true);
+        exportacao.start();
     }
 
     public static void main(String[] args) {
         launch(args);
     }
 }
-
@@ -0,0 +1,263 @@
+package br.com.spyrun;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe MapCompiler
+ * Lê mapas no formato texto ({@code .mapa}), usado para editar o
+ * escritório à mão, e compila para o formato binário dividido em
+ * chunks ({@code .mapb}), lido em tempo de execução pelo
+ * {@link ChunkedMapFile}.
+ *
+ * Formato texto (uma instrução por linha, {@code #} inicia um comentário):
+ * <pre>
+ * tamanho &lt;largura&gt; &lt;altura&gt;
+ * chunk &lt;lado&gt;
+ * cor &lt;nome&gt; &lt;hex&gt;       (RRGGBB, RGB ou RRGGBBAA, com # opcional)
+ * objeto &lt;cor&gt; &lt;x&gt; &lt;y&gt; &lt;largura&gt; &lt;altura&gt;
+ * </pre>
+ *
+ * Formato binário (big-endian):
+ * <pre>
+ * cabeçalho: int MAGIA, byte VERSAO, int largura, int altura,
+ *            int ladoChunk, int colunas, int linhas,
+ *            int cores, cores x int argb, int objetos
+ * tabela:    colunas x linhas x (int posição, int quantidade), linha a linha
+ * registros: int id, float x, float y, float largura, float altura,
+ *            short cor (índice na paleta, sem sinal)
+ * </pre>
+ * Um objeto que toca vários chunks é gravado em cada um deles com o
+ * mesmo id, para que cada chunk possa ser lido sozinho.
+ *
+ * Uso: MapCompiler entrada.mapa saida.mapb
+ */
+public class MapCompiler {
+
+    // "SPMP" e versão do formato binário
+    public static final int MAGIA = 0x53504D50;
+    public static final byte VERSAO = 1;
+
+    // Lado padrão dos chunks, se o arquivo texto não informar
+    public static final int LADO_CHUNK_PADRAO = 512;
+
+    // Maior paleta possível: o índice da cor é um short sem sinal
+    static final int MAX_CORES = 0xFFFF + 1;
+
+    // Bytes de cada registro de objeto e de cada entrada da tabela
+    static final int TAMANHO_REGISTRO = 4 + 4 * 4 + 2;
+    static final int TAMANHO_ENTRADA_TABELA = 8;
+
+    /**
+     * Mapa lido do formato texto.
+     */
+    public static class Definicao {
+        public int largura = GameWorld.WORLD_WIDTH;
+        public int altura = GameWorld.WORLD_HEIGHT;
+        public int ladoChunk = LADO_CHUNK_PADRAO;
+        public final List<MapObject> objetos = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: MapCompiler entrada.mapa saida.mapb");
+            System.exit(1);
+        }
+        Path entrada = Paths.get(args[0]);
+        Path saida = Paths.get(args[1]);
+        Definicao mapa = lerTexto(entrada);
+        compilar(mapa, saida);
+        System.out.printf("Mapa: %s | %dx%d | Objetos: %d | Chunks de %d px | %d bytes%n",
+                saida, mapa.largura, mapa.altura, mapa.objetos.size(), mapa.ladoChunk, Files.size(saida));
+    }
+
+    /**
+     * Lê um arquivo no formato texto.
+     * @throws IOException se o arquivo não existe ou tem uma linha inválida
+     */
+    public static Definicao lerTexto(Path arquivo) throws IOException {
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return lerTexto(leitor, arquivo.toString());
+        }
+    }
+
+    /**
+     * Lê um mapa no formato texto.
+     * @param origem nome do arquivo, usado nas mensagens de erro
+     * @throws IOException se alguma linha é inválida
+     */
+    public static Definicao lerTexto(BufferedReader leitor, String origem) throws IOException {
+        Definicao mapa = new Definicao();
+        Map<String, Integer> cores = new HashMap<>();
+        String linha;
+        int numero = 0;
+        while ((linha = leitor.readLine()) != null) {
+            numero++;
+            int comentario = linha.indexOf('#');
+            if (comentario >= 0) {
+                linha = linha.substring(0, comentario);
+            }
+            linha = linha.trim();
+            if (linha.isEmpty()) continue;
+
+            String[] partes = linha.split("\\s+");
+            try {
+                switch (partes[0]) {
+                    case "tamanho":
+                        exigirArgumentos(partes, 2);
+                        mapa.largura = positivo(partes[1]);
+                        mapa.altura = positivo(partes[2]);
+                        break;
+                    case "chunk":
+                        exigirArgumentos(partes, 1);
+                        mapa.ladoChunk = positivo(partes[1]);
+                        break;
+                    case "cor":
+                        exigirArgumentos(partes, 2);
+                        cores.put(partes[1], lerCor(partes[2]));
+                        break;
+                    case "objeto":
+                        exigirArgumentos(partes, 5);
+                        Integer cor = cores.get(partes[1]);
+                        if (cor == null) {
+                            throw new IllegalArgumentException("cor não definida: " + partes[1]);
+                        }
+                        mapa.objetos.add(new MapObject(Double.parseDouble(partes[2]), Double.parseDouble(partes[3]),
+                                Double.parseDouble(partes[4]), Double.parseDouble(partes[5]), cor));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("instrução desconhecida: " + partes[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException também cai aqui
+                throw new IOException(origem + ":" + numero + ": " + e.getMessage());
+            }
+        }
+        return mapa;
+    }
+
+    private static void exigirArgumentos(String[] partes, int quantidade) {
+        if (partes.length != quantidade + 1) {
+            throw new IllegalArgumentException(partes[0] + " espera " + quantidade + " argumentos");
+        }
+    }
+
+    /**
+     * Converte uma cor hexadecimal (RRGGBB, RGB ou RRGGBBAA, com
+     * {@code #} ou {@code 0x} opcional) para ARGB.
+     */
+    static int lerCor(String texto) {
+        String hex = texto.startsWith("#") ? texto.substring(1)
+                : texto.startsWith("0x") || texto.startsWith("0X") ? texto.substring(2) : texto;
+        if (hex.length() == 3) {
+            hex = new String(new char[] {hex.charAt(0), hex.charAt(0), hex.charAt(1), hex.charAt(1),
+                    hex.charAt(2), hex.charAt(2)});
+        }
+        if ((hex.length() != 6 && hex.length() != 8) || hex.startsWith("+") || hex.startsWith("-")) {
+            throw new IllegalArgumentException("cor inválida: " + texto);
+        }
+        try {
+            int valor = Integer.parseUnsignedInt(hex, 16);
+            return hex.length() == 6 ? 0xFF000000 | valor : (valor >>> 8) | (valor << 24);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("cor inválida: " + texto);
+        }
+    }
+
+    private static int positivo(String texto) {
+        int valor = Integer.parseInt(texto);
+        if (valor <= 0) {
+            throw new IllegalArgumentException("valor deve ser positivo: " + texto);
+        }
+        return valor;
+    }
+
+    /**
+     * Grava o mapa no formato binário dividido em chunks.
+     */
+    public static void compilar(Definicao mapa, Path saida) throws IOException {
+        int lado = mapa.ladoChunk;
+        int colunas = Math.max(1, (mapa.largura + lado - 1) / lado);
+        int linhas = Math.max(1, (mapa.altura + lado - 1) / lado);
+
+        // Paleta de cores e objetos de cada chunk
+        List<Integer> paleta = new ArrayList<>();
+        Map<Integer, Integer> indiceCor = new HashMap<>();
+        List<List<Integer>> porChunk = new ArrayList<>(colunas * linhas);
+        for (int c = 0; c < colunas * linhas; c++) {
+            porChunk.add(new ArrayList<>());
+        }
+        for (int id = 0; id < mapa.objetos.size(); id++) {
+            MapObject objeto = mapa.objetos.get(id);
+            if (!indiceCor.containsKey(objeto.color)) {
+                indiceCor.put(objeto.color, paleta.size());
+                paleta.add(objeto.color);
+            }
+            AABB b = objeto.getBounds();
+            int cx0 = limitar((int) Math.floor(b.minX / lado), colunas);
+            int cx1 = limitar((int) Math.floor(b.maxX / lado), colunas);
+            int cy0 = limitar((int) Math.floor(b.minY / lado), linhas);
+            int cy1 = limitar((int) Math.floor(b.maxY / lado), linhas);
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    porChunk.get(cy * colunas + cx).add(id);
+                }
+            }
+        }
+        if (paleta.size() > MAX_CORES) {
+            throw new IOException("Mapa com cores demais: " + paleta.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(saida)))) {
+            out.writeInt(MAGIA);
+            out.writeByte(VERSAO);
+            out.writeInt(mapa.largura);
+            out.writeInt(mapa.altura);
+            out.writeInt(lado);
+            out.writeInt(colunas);
+            out.writeInt(linhas);
+            out.writeInt(paleta.size());
+            for (int cor : paleta) {
+                out.writeInt(cor);
+            }
+            out.writeInt(mapa.objetos.size());
+
+            // Tabela: posição no arquivo e quantidade de registros de cada chunk
+            long posicao = out.size() + (long) colunas * linhas * TAMANHO_ENTRADA_TABELA;
+            for (List<Integer> ids : porChunk) {
+                if (posicao > Integer.MAX_VALUE) {
+                    throw new IOException("Mapa grande demais para o formato binário");
+                }
+                out.writeInt((int) posicao);
+                out.writeInt(ids.size());
+                posicao += (long) ids.size() * TAMANHO_REGISTRO;
+            }
+
+            for (List<Integer> ids : porChunk) {
+                for (int id : ids) {
+                    MapObject objeto = mapa.objetos.get(id);
+                    out.writeInt(id);
+                    out.writeFloat((float) objeto.x);
+                    out.writeFloat((float) objeto.y);
+                    out.writeFloat((float) objeto.width);
+                    out.writeFloat((float) objeto.height);
+                    out.writeShort(indiceCor.get(objeto.color));
+                }
+            }
+        }
+    }
+
+    private static int limitar(int indice, int quantidade) {
+        return Math.max(0, Math.min(quantidade - 1, indice));
+    }
+}
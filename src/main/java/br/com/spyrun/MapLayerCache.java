@@ -0,0 +1,213 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe MapLayerCache
+ * Cache da camada estática do mapa (chão e objetos do escritório).
+ * O mundo é dividido em blocos (tiles) que são rasterizados sob demanda,
+ * uma única vez, em imagens; a cada frame basta um drawImage por bloco
+ * visível, em vez de um fillRect por objeto do mapa.
+ *
+ * Os blocos são descartados quando a versão de desenho do
+ * {@link OfficeMap} muda (o carregamento de chunks não a altera) e, para
+ * mapas grandes, os menos usados recentemente saem do cache.
+ * Como o mapa é feito só de retângulos, os blocos são rasterizados em
+ * software, direto em arrays de pixels, sem Canvas.snapshot; por isso a
+ * camada também funciona fora da thread do JavaFX (ex.: benchmarks).
+ *
+ * Com escala de renderização menor que 1 os blocos são rasterizados já
+ * reduzidos e seus pixels são mantidos em arrays, para que o
+ * {@link SpriteBatch} os copie direto na camada em software (ver
+ * {@link #registrar}); assim o frame reduzido não precisa passar por um
+ * canvas intermediário.
+ */
+public class MapLayerCache {
+
+    // Lado de cada bloco, em pixels
+    public static final int TILE_SIZE = 256;
+
+    // Quantidade máxima de blocos mantidos em memória (256 KB cada)
+    private static final int MAX_TILES = 128;
+
+    /**
+     * Bloco rasterizado: a imagem (escala 1) ou, na escala reduzida, os
+     * pixels (ARGB pré-multiplicado, ladoTile x ladoTile).
+     */
+    private static final class Bloco {
+        final WritableImage imagem;
+        final int[] pixels;
+
+        Bloco(WritableImage imagem, int[] pixels) {
+            this.imagem = imagem;
+            this.pixels = pixels;
+        }
+    }
+
+    // Blocos já rasterizados, do menos para o mais usado recentemente
+    private final Map<Long, Bloco> tiles = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Bloco> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    // Escala dos blocos e lado de cada um em pixels (TILE_SIZE na escala 1)
+    private final double escala;
+    private final int ladoTile;
+
+    // Área do bloco sendo rasterizado, em coordenadas do mundo
+    private final AABB areaTile = new AABB();
+
+    // Cor do chão em ARGB pré-multiplicado
+    private static final int COR_CHAO = SpriteAtlas.argbPre(OfficeMap.COR_CHAO);
+
+    // Mapa e versão usados para gerar os blocos atuais
+    private OfficeMap mapa;
+    private int versaoMapa = -1;
+
+    public MapLayerCache() {
+        this(1);
+    }
+
+    /**
+     * @param escala escala de renderização dos blocos (0 a 1)
+     */
+    public MapLayerCache(double escala) {
+        this.escala = escala;
+        ladoTile = (int) Math.ceil(TILE_SIZE * escala);
+    }
+
+    /**
+     * Desenha a camada estática do mapa para a câmera informada.
+     * @param g contexto gráfico de destino
+     * @param officeMap mapa a ser desenhado
+     * @param cameraX posição X da câmera no mundo
+     * @param cameraY posição Y da câmera no mundo
+     * @param visivel área visível em coordenadas do mundo
+     */
+    public void desenhar(GraphicsContext g, OfficeMap officeMap, double cameraX, double cameraY, AABB visivel) {
+        verificarVersao(officeMap);
+
+        int primeiraColuna = (int) Math.floor(visivel.minX / TILE_SIZE);
+        int ultimaColuna = (int) Math.floor((visivel.maxX - 1) / TILE_SIZE);
+        int primeiraLinha = (int) Math.floor(visivel.minY / TILE_SIZE);
+        int ultimaLinha = (int) Math.floor((visivel.maxY - 1) / TILE_SIZE);
+
+        for (int ty = primeiraLinha; ty <= ultimaLinha; ty++) {
+            for (int tx = primeiraColuna; tx <= ultimaColuna; tx++) {
+                WritableImage tile = obterTile(tx, ty).imagem;
+                g.drawImage(tile, tx * (double) TILE_SIZE - cameraX, ty * (double) TILE_SIZE - cameraY);
+            }
+        }
+    }
+
+    /**
+     * Registra no lote, como cópias de pixels, os blocos visíveis para a
+     * câmera informada (usado na escala reduzida, com o lote na mesma escala).
+     * @param lote camada onde os blocos serão copiados, antes das entidades
+     * @param officeMap mapa a ser desenhado
+     * @param cameraX posição X da câmera no mundo
+     * @param cameraY posição Y da câmera no mundo
+     * @param visivel área visível em coordenadas do mundo
+     */
+    public void registrar(SpriteBatch lote, OfficeMap officeMap, double cameraX, double cameraY, AABB visivel) {
+        verificarVersao(officeMap);
+
+        int primeiraColuna = (int) Math.floor(visivel.minX / TILE_SIZE);
+        int ultimaColuna = (int) Math.floor((visivel.maxX - 1) / TILE_SIZE);
+        int primeiraLinha = (int) Math.floor(visivel.minY / TILE_SIZE);
+        int ultimaLinha = (int) Math.floor((visivel.maxY - 1) / TILE_SIZE);
+
+        for (int ty = primeiraLinha; ty <= ultimaLinha; ty++) {
+            for (int tx = primeiraColuna; tx <= ultimaColuna; tx++) {
+                int x = (int) Math.floor((tx * (double) TILE_SIZE - cameraX) * escala);
+                int y = (int) Math.floor((ty * (double) TILE_SIZE - cameraY) * escala);
+                lote.bloco(obterTile(tx, ty).pixels, ladoTile, x, y);
+            }
+        }
+    }
+
+    private void verificarVersao(OfficeMap officeMap) {
+        if (officeMap != mapa || officeMap.getVersaoDesenho() != versaoMapa) {
+            invalidar();
+            mapa = officeMap;
+            versaoMapa = officeMap.getVersaoDesenho();
+        }
+    }
+
+    /**
+     * Descarta todos os blocos; eles serão rasterizados de novo quando aparecerem.
+     */
+    public void invalidar() {
+        tiles.clear();
+    }
+
+    private Bloco obterTile(int tx, int ty) {
+        long chave = ((long) tx << 32) | (ty & 0xffffffffL);
+        Bloco tile = tiles.get(chave);
+        if (tile == null) {
+            tile = rasterizar(tx, ty);
+            tiles.put(chave, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Preenche o chão e os objetos do mapa que tocam o bloco, com as
+     * bordas arredondadas para o pixel mais próximo na escala do bloco.
+     */
+    private Bloco rasterizar(int tx, int ty) {
+        double origemX = tx * (double) TILE_SIZE;
+        double origemY = ty * (double) TILE_SIZE;
+        int[] pixels = new int[ladoTile * ladoTile];
+        Arrays.fill(pixels, COR_CHAO);
+
+        areaTile.set(origemX, origemY, TILE_SIZE, TILE_SIZE);
+        ObstacleIndex index = mapa.getIndex();
+        int encontrados = index.query(areaTile);
+        for (int k = 0; k < encontrados; k++) {
+            MapObject objeto = index.result(k);
+            int x0 = pixel(objeto.x - origemX);
+            int y0 = pixel(objeto.y - origemY);
+            int x1 = pixel(objeto.x + objeto.width - origemX);
+            int y1 = pixel(objeto.y + objeto.height - origemY);
+            preencher(pixels, SpriteAtlas.argbPre(objeto.color), x0, y0, x1, y1);
+        }
+
+        if (escala < 1) {
+            return new Bloco(null, pixels);
+        }
+        WritableImage imagem = new WritableImage(ladoTile, ladoTile);
+        imagem.getPixelWriter().setPixels(0, 0, ladoTile, ladoTile, PixelFormat.getIntArgbPreInstance(), pixels, 0, ladoTile);
+        return new Bloco(imagem, null);
+    }
+
+    /**
+     * Converte uma distância da origem do bloco para a coluna (ou linha)
+     * de pixel correspondente, dentro do bloco.
+     */
+    private int pixel(double distancia) {
+        return Math.max(0, Math.min(ladoTile, (int) Math.round(distancia * escala)));
+    }
+
+    private void preencher(int[] pixels, int cor, int x0, int y0, int x1, int y1) {
+        int a = cor >>> 24;
+        for (int y = y0; y < y1; y++) {
+            int linha = y * ladoTile;
+            if (a == 255) {
+                Arrays.fill(pixels, linha + x0, linha + x1, cor);
+            } else {
+                for (int x = x0; x < x1; x++) {
+                    pixels[linha + x] = SpriteBatch.compor(cor, a, pixels[linha + x]);
+                }
+            }
+        }
+    }
+}
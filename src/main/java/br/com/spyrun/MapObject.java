@@ -1,29 +1,30 @@
 package br.com.spyrun;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-
+/**
+ * Objeto de colisão do mapa (parede, mesa, etc.). Só guarda a geometria
+ * e a cor; o desenho fica com a camada do mapa ({@link MapLayerCache}).
+ */
 public class MapObject {
-    public double x, y, width, height;
-    public Color color;
-    private Rectangle bounds;
+    // Imutáveis: a caixa e a broadphase (ObstacleIndex) são calculadas uma vez a partir deles
+    public final double x, y, width, height;
+
+    // Cor em ARGB (0xAARRGGBB, sem pré-multiplicar)
+    public final int color;
+    private final AABB bounds;
 
-    public MapObject(double x, double y, double width, double height, Color color) {
+    public MapObject(double x, double y, double width, double height, int color) {
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
         this.color = color;
-        this.bounds = new Rectangle(x, y, width, height);
+        this.bounds = new AABB(x, y, width, height);
     }
 
-    public void draw(GraphicsContext g, double cameraX, double cameraY) {
-        g.setFill(color);
-        g.fillRect(x - cameraX, y - cameraY, width, height);
-    }
-    
-    public Rectangle getBounds() {
+    /**
+     * Caixa do objeto, compartilhada; não deve ser alterada.
+     */
+    public AABB getBounds() {
         return bounds;
     }
 }
@@ -0,0 +1,177 @@
+package br.com.spyrun;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Classe MapStreamer
+ * Mantém carregados apenas os chunks de um {@link ChunkedMapFile} ao
+ * redor da câmera. Os chunks que tocam a área visível, ampliada por uma
+ * margem, são lidos do arquivo quando entram nessa faixa; os que ficam
+ * a mais de um chunk dela são descartados. Essa folga evita carregar e
+ * descartar o mesmo chunk quando a câmera oscila sobre uma borda.
+ *
+ * A cada mudança o conjunto de objetos carregados é refeito em uma
+ * lista nova, sem duplicatas e na ordem dos ids do arquivo, para que o
+ * resultado não dependa da ordem em que os chunks foram carregados.
+ */
+public class MapStreamer {
+
+    // Margem mínima em volta da área visível; cobre os blocos do
+    // MapLayerCache que passam da borda da tela, para que um bloco só
+    // seja rasterizado com todos os chunks embaixo dele carregados
+    private static final double MARGEM_MINIMA = MapLayerCache.TILE_SIZE;
+
+    /**
+     * Objetos de um chunk carregado.
+     */
+    private static final class Chunk {
+        final int[] ids;
+        final MapObject[] objetos;
+
+        Chunk(int[] ids, MapObject[] objetos) {
+            this.ids = ids;
+            this.objetos = objetos;
+        }
+    }
+
+    private final ChunkedMapFile arquivo;
+    private final double margem;
+
+    // Chunks carregados, por chave (linha << 32 | coluna)
+    private final Map<Long, Chunk> carregados = new HashMap<>();
+
+    // Faixa de chunks (inclusiva) exigida na última atualização
+    private int primeiraColuna = -1, ultimaColuna = -1, primeiraLinha = -1, ultimaLinha = -1;
+
+    // Objetos de todos os chunks carregados, sem duplicatas
+    private List<MapObject> objetos = Collections.emptyList();
+
+    // Contadores de leituras e descartes, para diagnóstico
+    private int chunksLidos;
+    private int chunksDescartados;
+
+    public MapStreamer(ChunkedMapFile arquivo) {
+        this.arquivo = arquivo;
+        this.margem = Math.max(MARGEM_MINIMA, arquivo.getLadoChunk());
+    }
+
+    /**
+     * Carrega os chunks próximos da área visível e descarta os distantes.
+     * Chamado a cada tick; sem mudança de faixa custa apenas a comparação.
+     * @param visivel área visível em coordenadas do mundo
+     * @return true se os objetos carregados mudaram (ver {@link #getObjetos()})
+     */
+    public boolean atualizar(AABB visivel) {
+        int lado = arquivo.getLadoChunk();
+        int c0 = coluna((visivel.minX - margem) / lado);
+        int c1 = coluna((visivel.maxX + margem) / lado);
+        int l0 = linha((visivel.minY - margem) / lado);
+        int l1 = linha((visivel.maxY + margem) / lado);
+        if (c0 == primeiraColuna && c1 == ultimaColuna && l0 == primeiraLinha && l1 == ultimaLinha) {
+            return false;
+        }
+        primeiraColuna = c0;
+        ultimaColuna = c1;
+        primeiraLinha = l0;
+        ultimaLinha = l1;
+
+        boolean mudou = false;
+
+        // Descarta os chunks a mais de um chunk da faixa exigida
+        Iterator<Map.Entry<Long, Chunk>> it = carregados.entrySet().iterator();
+        while (it.hasNext()) {
+            long chave = it.next().getKey();
+            int cx = (int) chave;
+            int cy = (int) (chave >> 32);
+            if (cx < c0 - 1 || cx > c1 + 1 || cy < l0 - 1 || cy > l1 + 1) {
+                it.remove();
+                chunksDescartados++;
+                mudou = true;
+            }
+        }
+
+        // Lê os chunks da faixa que ainda não estão carregados
+        for (int cy = l0; cy <= l1; cy++) {
+            for (int cx = c0; cx <= c1; cx++) {
+                long chave = ((long) cy << 32) | cx;
+                if (carregados.containsKey(chave)) continue;
+                int quantidade = arquivo.quantidade(cx, cy);
+                int[] ids = new int[quantidade];
+                MapObject[] lidos = new MapObject[quantidade];
+                arquivo.lerChunk(cx, cy, ids, lidos);
+                carregados.put(chave, new Chunk(ids, lidos));
+                chunksLidos++;
+                mudou = true;
+            }
+        }
+
+        if (mudou) {
+            reconstruirObjetos();
+        }
+        return mudou;
+    }
+
+    /**
+     * Junta os objetos dos chunks carregados, uma vez cada, em ordem de id.
+     */
+    private void reconstruirObjetos() {
+        TreeMap<Integer, MapObject> porId = new TreeMap<>();
+        for (Chunk chunk : carregados.values()) {
+            for (int k = 0; k < chunk.ids.length; k++) {
+                porId.putIfAbsent(chunk.ids[k], chunk.objetos[k]);
+            }
+        }
+        objetos = new ArrayList<>(porId.values());
+    }
+
+    private int coluna(double c) {
+        return Math.max(0, Math.min(arquivo.getColunas() - 1, (int) Math.floor(c)));
+    }
+
+    private int linha(double l) {
+        return Math.max(0, Math.min(arquivo.getLinhas() - 1, (int) Math.floor(l)));
+    }
+
+    /**
+     * @return objetos carregados (lista nova a cada mudança; não deve ser alterada)
+     */
+    public List<MapObject> getObjetos() {
+        return objetos;
+    }
+
+    /**
+     * Preenche {@code destino} com a região coberta pela faixa de chunks
+     * exigida na última atualização, limitada ao mundo. Dentro dela todos
+     * os objetos do mapa estão carregados.
+     */
+    public void areaCarregada(AABB destino) {
+        int lado = arquivo.getLadoChunk();
+        double minX = primeiraColuna * (double) lado;
+        double minY = primeiraLinha * (double) lado;
+        double maxX = Math.min(arquivo.getLargura(), (ultimaColuna + 1) * (double) lado);
+        double maxY = Math.min(arquivo.getAltura(), (ultimaLinha + 1) * (double) lado);
+        destino.set(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    public ChunkedMapFile getArquivo() {
+        return arquivo;
+    }
+
+    public int getChunksCarregados() {
+        return carregados.size();
+    }
+
+    public int getChunksLidos() {
+        return chunksLidos;
+    }
+
+    public int getChunksDescartados() {
+        return chunksDescartados;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classe MetricsOverlay
+ * Painel de desempenho desenhado sobre o jogo com os percentis de cada
+ * série do {@link MetricsRegistry}. O texto é recalculado apenas a cada
+ * {@link #INTERVALO_ATUALIZACAO_NANOS}, para que o próprio painel não
+ * pese no tempo de frame.
+ */
+public class MetricsOverlay {
+
+    // Intervalo entre atualizações do texto do painel
+    private static final long INTERVALO_ATUALIZACAO_NANOS = 500_000_000L;
+
+    private static final Font FONTE = Font.font("Monospaced", 12);
+    private static final double ALTURA_LINHA = 14;
+    private static final double LARGURA = 470;
+    private static final Color FUNDO = Color.rgb(0, 0, 0, 0.7);
+
+    private final MetricsRegistry metricas;
+
+    private List<String> linhas = Collections.emptyList();
+    private long ultimaAtualizacao;
+
+    public MetricsOverlay(MetricsRegistry metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Desenha o painel no canto superior direito da área informada.
+     */
+    public void desenhar(GraphicsContext g, double viewWidth) {
+        long agora = System.nanoTime();
+        if (agora - ultimaAtualizacao >= INTERVALO_ATUALIZACAO_NANOS) {
+            ultimaAtualizacao = agora;
+            linhas = metricas.resumo();
+        }
+
+        double x = viewWidth - LARGURA - 10;
+        double y = 10;
+        g.save();
+        g.setFill(FUNDO);
+        g.fillRect(x, y, LARGURA, linhas.size() * ALTURA_LINHA + 8);
+
+        g.setFont(FONTE);
+        g.setFill(Color.WHITE);
+        for (int i = 0; i < linhas.size(); i++) {
+            g.fillText(linhas.get(i), x + 6, y + 14 + i * ALTURA_LINHA);
+        }
+        g.restore();
+    }
+}
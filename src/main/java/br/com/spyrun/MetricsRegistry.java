@@ -0,0 +1,311 @@
+package br.com.spyrun;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Classe MetricsRegistry
+ * Registro de métricas do loop do jogo: tempo de cada fase do tick e
+ * do desenho, quantidade de entidades e bytes alocados.
+ *
+ * Cada {@link Serie} guarda uma janela móvel das últimas amostras, de
+ * onde saem os percentis mostrados no HUD ({@link MetricsOverlay}).
+ * Periodicamente {@link #consolidar()} resume todas as séries em uma
+ * linha do histórico, que pode ser exportado em CSV ou JSON para
+ * comparar builds e encontrar picos.
+ *
+ * As séries são escritas pela thread da simulação e pela thread do
+ * JavaFX e lidas por esta última; os acessos são sincronizados por
+ * série, sem disputa na prática. A exportação copia o histórico e grava
+ * o arquivo fora da trava, então pode rodar em uma thread de fundo sem
+ * atrasar as consolidações.
+ */
+public class MetricsRegistry {
+
+    /**
+     * Unidade dos valores de uma série.
+     */
+    public enum Unidade {
+        // Duração em nanossegundos (exibida em ms)
+        NANOS,
+        // Quantidade de entidades
+        CONTAGEM,
+        // Bytes alocados (exibidos em KB; o histórico inclui a taxa em bytes/s)
+        BYTES
+    }
+
+    // Quantidade de amostras na janela móvel de cada série
+    public static final int JANELA_PADRAO = 240;
+
+    // Linhas mantidas no histórico (uma hora, consolidando a cada segundo)
+    public static final int MAX_LINHAS = 3600;
+
+    // Percentis calculados para cada série
+    private static final double[] PERCENTIS = {0.50, 0.95, 0.99};
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private volatile boolean ativo;
+
+    private final Map<String, Serie> series = new LinkedHashMap<>();
+    // Fila das consolidações; ao atingir MAX_LINHAS a mais antiga sai pelo início
+    private final ArrayDeque<Linha> historico = new ArrayDeque<>();
+    private final long inicioNanos = System.nanoTime();
+    private long ultimaConsolidacaoNanos = inicioNanos;
+
+    /**
+     * @return true se as métricas devem ser registradas
+     */
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    /**
+     * Liga ou desliga o registro.
+     * @return o novo estado
+     */
+    public boolean alternar() {
+        ativo = !ativo;
+        return ativo;
+    }
+
+    /**
+     * Retorna a série com o nome informado, criando-a na primeira chamada.
+     * As séries devem ser obtidas uma vez e guardadas por quem registra.
+     */
+    public synchronized Serie serie(String nome, Unidade unidade) {
+        return series.computeIfAbsent(nome, n -> new Serie(n, unidade, JANELA_PADRAO));
+    }
+
+    /**
+     * Bytes alocados até agora pela thread atual, ou -1 se a JVM não
+     * oferece essa medida.
+     */
+    public static long bytesAlocadosThreadAtual() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resume todas as séries (percentis da janela atual e taxa desde a
+     * consolidação anterior) em uma nova linha do histórico.
+     */
+    public synchronized void consolidar() {
+        long agora = System.nanoTime();
+        double segundos = Math.max(1e-9, (agora - ultimaConsolidacaoNanos) / 1_000_000_000.0);
+        ultimaConsolidacaoNanos = agora;
+
+        Linha linha = new Linha((agora - inicioNanos) / 1_000_000_000.0);
+        for (Serie s : series.values()) {
+            linha.resumos.put(s.nome, s.resumir(segundos));
+        }
+        if (historico.size() == MAX_LINHAS) {
+            historico.pollFirst();
+        }
+        historico.addLast(linha);
+    }
+
+    /**
+     * Gera as linhas de texto do HUD: p50/p95/p99/máx de cada série.
+     */
+    public synchronized List<String> resumo() {
+        List<String> linhas = new ArrayList<>();
+        linhas.add(String.format(Locale.ROOT, "%-18s %8s %8s %8s %8s", "", "p50", "p95", "p99", "max"));
+        double[] valores = new double[PERCENTIS.length + 1];
+        for (Serie s : series.values()) {
+            if (!s.percentis(valores)) continue;
+            double escala = escalaExibicao(s.unidade);
+            linhas.add(String.format(Locale.ROOT, "%-18s %8.2f %8.2f %8.2f %8.2f %s",
+                    s.nome, valores[0] / escala, valores[1] / escala, valores[2] / escala,
+                    valores[3] / escala, sufixo(s.unidade)));
+        }
+        return linhas;
+    }
+
+    /**
+     * Exporta o histórico em CSV, uma linha por série em cada consolidação.
+     */
+    public void exportarCsv(Path arquivo) throws IOException {
+        Map<String, Unidade> unidades = new HashMap<>();
+        List<Linha> linhas = copiarHistorico(unidades);
+        try (Writer w = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            w.write("tempo_s,serie,unidade,p50,p95,p99,max,media,taxa_por_s\n");
+            for (Linha linha : linhas) {
+                for (Map.Entry<String, double[]> e : linha.resumos.entrySet()) {
+                    double[] r = e.getValue();
+                    w.write(String.format(Locale.ROOT, "%.3f,%s,%s,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                            linha.tempo, e.getKey(), unidades.get(e.getKey()),
+                            r[0], r[1], r[2], r[3], r[4], r[5]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Exporta o histórico em JSON: uma lista de consolidações, cada uma
+     * com o resumo de todas as séries.
+     */
+    public void exportarJson(Path arquivo) throws IOException {
+        Map<String, Unidade> unidades = new HashMap<>();
+        List<Linha> linhas = copiarHistorico(unidades);
+        try (Writer w = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            w.write("[\n");
+            for (Iterator<Linha> it = linhas.iterator(); it.hasNext(); ) {
+                Linha linha = it.next();
+                w.write(String.format(Locale.ROOT, "  {\"tempo_s\": %.3f, \"series\": {", linha.tempo));
+                boolean primeira = true;
+                for (Map.Entry<String, double[]> e : linha.resumos.entrySet()) {
+                    double[] r = e.getValue();
+                    w.write(String.format(Locale.ROOT,
+                            "%s\"%s\": {\"unidade\": \"%s\", \"p50\": %.1f, \"p95\": %.1f, \"p99\": %.1f, "
+                                    + "\"max\": %.1f, \"media\": %.1f, \"taxa_por_s\": %.1f}",
+                            primeira ? "" : ", ", e.getKey(), unidades.get(e.getKey()),
+                            r[0], r[1], r[2], r[3], r[4], r[5]));
+                    primeira = false;
+                }
+                w.write(it.hasNext() ? "}},\n" : "}}\n");
+            }
+            w.write("]\n");
+        }
+    }
+
+    /**
+     * Copia o histórico (as linhas não mudam depois de consolidadas) e a
+     * unidade de cada série, para exportar sem segurar a trava.
+     */
+    private synchronized List<Linha> copiarHistorico(Map<String, Unidade> unidades) {
+        for (Serie s : series.values()) {
+            unidades.put(s.nome, s.unidade);
+        }
+        return new ArrayList<>(historico);
+    }
+
+    private static double escalaExibicao(Unidade unidade) {
+        switch (unidade) {
+            case NANOS: return 1_000_000.0;
+            case BYTES: return 1024.0;
+            default: return 1.0;
+        }
+    }
+
+    private static String sufixo(Unidade unidade) {
+        switch (unidade) {
+            case NANOS: return "ms";
+            case BYTES: return "KB";
+            default: return "";
+        }
+    }
+
+    /**
+     * Série de amostras com janela móvel de tamanho fixo.
+     */
+    public static final class Serie {
+        private final String nome;
+        private final Unidade unidade;
+
+        // Janela circular das últimas amostras
+        private final long[] valores;
+        private int quantidade;
+        private int proximo;
+
+        // Soma das amostras desde a última consolidação (para a taxa por segundo)
+        private long somaPeriodo;
+
+        // Vetor auxiliar para ordenar a janela no cálculo dos percentis
+        private final long[] ordenados;
+
+        private Serie(String nome, Unidade unidade, int janela) {
+            this.nome = nome;
+            this.unidade = unidade;
+            this.valores = new long[janela];
+            this.ordenados = new long[janela];
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        /**
+         * Adiciona uma amostra, descartando a mais antiga se a janela estiver cheia.
+         */
+        public synchronized void registrar(long valor) {
+            valores[proximo] = valor;
+            proximo = (proximo + 1) % valores.length;
+            if (quantidade < valores.length) {
+                quantidade++;
+            }
+            somaPeriodo += valor;
+        }
+
+        /**
+         * Calcula p50, p95, p99 e máximo da janela atual.
+         * @param saida vetor com pelo menos 4 posições
+         * @return false se ainda não há amostras
+         */
+        synchronized boolean percentis(double[] saida) {
+            if (quantidade == 0) {
+                return false;
+            }
+            System.arraycopy(valores, 0, ordenados, 0, quantidade);
+            Arrays.sort(ordenados, 0, quantidade);
+            for (int i = 0; i < PERCENTIS.length; i++) {
+                int k = Math.min(quantidade - 1, (int) Math.ceil(PERCENTIS[i] * quantidade) - 1);
+                saida[i] = ordenados[Math.max(0, k)];
+            }
+            saida[PERCENTIS.length] = ordenados[quantidade - 1];
+            return true;
+        }
+
+        /**
+         * @return p50, p95, p99, máximo, média da janela e taxa por segundo no período
+         */
+        synchronized double[] resumir(double segundos) {
+            double[] r = new double[6];
+            if (percentis(r)) {
+                long soma = 0;
+                for (int i = 0; i < quantidade; i++) {
+                    soma += valores[i];
+                }
+                r[4] = soma / (double) quantidade;
+            }
+            r[5] = somaPeriodo / segundos;
+            somaPeriodo = 0;
+            return r;
+        }
+    }
+
+    /**
+     * Uma consolidação do histórico: instante e resumo de cada série.
+     */
+    private static final class Linha {
+        final double tempo;
+        final Map<String, double[]> resumos = new LinkedHashMap<>();
+
+        Linha(double tempo) {
+            this.tempo = tempo;
+        }
+    }
+}
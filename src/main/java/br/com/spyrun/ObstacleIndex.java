@@ -0,0 +1,253 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe ObstacleIndex
+ * Broadphase estática para os objetos do mapa. É construída uma única
+ * vez a partir da lista de {@link MapObject} e divide a área ocupada
+ * pelo mapa em uma grade de células; cada célula guarda os índices dos
+ * objetos que a tocam, em arrays compactos (CSR: início de cada célula
+ * em {@code cellStart} e índices em {@code cellItems}).
+ *
+ * As consultas de colisão ({@link #colide(AABB)}, {@link #contemPonto} e
+ * {@link #primeiroImpacto}) são somente leitura e podem ser feitas por
+ * várias threads ao mesmo tempo. Já {@link #query(AABB)} usa estado interno para eliminar
+ * duplicatas e deve ser chamada por uma thread de cada vez.
+ */
+public class ObstacleIndex {
+
+    // Lado padrão das células, próximo ao tamanho de uma mesa
+    public static final double DEFAULT_CELL_SIZE = 128;
+
+    private final List<MapObject> objects;
+
+    // Caixas dos objetos copiadas para arrays, na mesma ordem da lista
+    private final double[] minX, minY, maxX, maxY;
+
+    // Origem e dimensões da grade
+    private final double originX, originY;
+
+    // Limite máximo da área ocupada pelos objetos
+    private final double fimX, fimY;
+    private final double cellSize;
+    private final int cols, rows;
+
+    // Para cada célula c, os objetos estão em cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellItems;
+
+    // Controle de duplicatas em query(): marca de cada objeto e marca atual
+    private final int[] marca;
+    private int marcaAtual;
+
+    // Resultado da última query()
+    private int[] resultados;
+    private int quantidadeResultados;
+
+    /**
+     * Constrói o índice para os objetos informados.
+     * @param objects objetos do mapa (a lista não deve mudar depois)
+     * @param cellSize lado de cada célula da grade
+     */
+    public ObstacleIndex(List<MapObject> objects, double cellSize) {
+        this.objects = objects;
+        this.cellSize = cellSize;
+        int n = objects.size();
+        minX = new double[n];
+        minY = new double[n];
+        maxX = new double[n];
+        maxY = new double[n];
+
+        // Limites de todos os objetos, usados como área da grade
+        double areaMinX = 0, areaMinY = 0, areaMaxX = cellSize, areaMaxY = cellSize;
+        for (int i = 0; i < n; i++) {
+            AABB b = objects.get(i).getBounds();
+            minX[i] = b.minX;
+            minY[i] = b.minY;
+            maxX[i] = b.maxX;
+            maxY[i] = b.maxY;
+            if (i == 0) {
+                areaMinX = b.minX;
+                areaMinY = b.minY;
+                areaMaxX = b.maxX;
+                areaMaxY = b.maxY;
+            } else {
+                areaMinX = Math.min(areaMinX, b.minX);
+                areaMinY = Math.min(areaMinY, b.minY);
+                areaMaxX = Math.max(areaMaxX, b.maxX);
+                areaMaxY = Math.max(areaMaxY, b.maxY);
+            }
+        }
+        originX = areaMinX;
+        originY = areaMinY;
+        fimX = areaMaxX;
+        fimY = areaMaxY;
+        cols = Math.max(1, (int) Math.ceil((areaMaxX - areaMinX) / cellSize));
+        rows = Math.max(1, (int) Math.ceil((areaMaxY - areaMinY) / cellSize));
+
+        // Primeira passada: conta quantos objetos tocam cada célula
+        cellStart = new int[cols * rows + 1];
+        for (int i = 0; i < n; i++) {
+            for (int cy = cellY(minY[i]); cy <= cellY(maxY[i]); cy++) {
+                for (int cx = cellX(minX[i]); cx <= cellX(maxX[i]); cx++) {
+                    cellStart[cy * cols + cx + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // Segunda passada: grava os índices dos objetos em cada célula
+        cellItems = new int[cellStart[cols * rows]];
+        int[] preenchidos = new int[cols * rows];
+        for (int i = 0; i < n; i++) {
+            for (int cy = cellY(minY[i]); cy <= cellY(maxY[i]); cy++) {
+                for (int cx = cellX(minX[i]); cx <= cellX(maxX[i]); cx++) {
+                    int c = cy * cols + cx;
+                    cellItems[cellStart[c] + preenchidos[c]++] = i;
+                }
+            }
+        }
+
+        marca = new int[n];
+        resultados = new int[16];
+    }
+
+    /**
+     * Verifica se a caixa intercepta algum objeto do mapa.
+     * Somente leitura: seguro para chamadas concorrentes.
+     */
+    public boolean colide(AABB caixa) {
+        return colide(caixa.minX, caixa.minY, caixa.maxX, caixa.maxY);
+    }
+
+    /**
+     * Mesmo teste de {@link #colide(AABB)}, recebendo os limites da caixa
+     * diretamente (usado por quem guarda as entidades em arrays, sem AABB).
+     */
+    public boolean colide(double cMinX, double cMinY, double cMaxX, double cMaxY) {
+        if (objects.isEmpty()) {
+            return false;
+        }
+        for (int cy = cellY(cMinY); cy <= cellY(cMaxY); cy++) {
+            for (int cx = cellX(cMinX); cx <= cellX(cMaxX); cx++) {
+                int c = cy * cols + cx;
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellItems[k];
+                    if (cMinX < maxX[i] && cMaxX > minX[i]
+                            && cMinY < maxY[i] && cMaxY > minY[i]) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Primeiro contato de um círculo que se move de (x0, y0) a (x1, y1)
+     * com algum objeto do mapa, testando apenas os objetos das células
+     * cobertas pelo trecho (ver {@link SweptCollision#circuloContraCaixa}).
+     * Somente leitura: seguro para chamadas concorrentes.
+     * @return fração do trecho no primeiro contato, ou {@link SweptCollision#SEM_IMPACTO}
+     */
+    public double primeiroImpacto(double x0, double y0, double x1, double y1, double raio) {
+        double melhor = SweptCollision.SEM_IMPACTO;
+        if (objects.isEmpty()) {
+            return melhor;
+        }
+        // Caixa que envolve todo o trecho, para descartar objetos distantes
+        double tMinX = Math.min(x0, x1) - raio;
+        double tMaxX = Math.max(x0, x1) + raio;
+        double tMinY = Math.min(y0, y1) - raio;
+        double tMaxY = Math.max(y0, y1) + raio;
+        if (tMinX > fimX || tMaxX < originX || tMinY > fimY || tMaxY < originY) {
+            return melhor;
+        }
+        for (int cy = cellY(tMinY); cy <= cellY(tMaxY); cy++) {
+            for (int cx = cellX(tMinX); cx <= cellX(tMaxX); cx++) {
+                int c = cy * cols + cx;
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellItems[k];
+                    if (tMinX > maxX[i] || tMaxX < minX[i] || tMinY > maxY[i] || tMaxY < minY[i]) continue;
+                    double t = SweptCollision.circuloContraCaixa(x0, y0, x1, y1, raio,
+                            minX[i], minY[i], maxX[i], maxY[i]);
+                    if (t < melhor) {
+                        melhor = t;
+                    }
+                }
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Verifica se o ponto está dentro de algum objeto do mapa (bordas inclusas).
+     * Somente leitura: seguro para chamadas concorrentes.
+     */
+    public boolean contemPonto(double px, double py) {
+        if (objects.isEmpty()) {
+            return false;
+        }
+        int c = cellY(py) * cols + cellX(px);
+        for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+            int i = cellItems[k];
+            if (px >= minX[i] && px <= maxX[i] && py >= minY[i] && py <= maxY[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Coleta, sem repetição, os objetos que interceptam a caixa.
+     * Os índices ficam disponíveis em {@link #result(int)} até a próxima consulta.
+     * @return quantidade de objetos encontrados
+     */
+    public int query(AABB caixa) {
+        quantidadeResultados = 0;
+        if (objects.isEmpty()) {
+            return 0;
+        }
+        marcaAtual++;
+        for (int cy = cellY(caixa.minY); cy <= cellY(caixa.maxY); cy++) {
+            for (int cx = cellX(caixa.minX); cx <= cellX(caixa.maxX); cx++) {
+                int c = cy * cols + cx;
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellItems[k];
+                    if (marca[i] == marcaAtual) continue;
+                    marca[i] = marcaAtual;
+                    if (caixa.minX < maxX[i] && caixa.maxX > minX[i]
+                            && caixa.minY < maxY[i] && caixa.maxY > minY[i]) {
+                        if (quantidadeResultados == resultados.length) {
+                            resultados = Arrays.copyOf(resultados, resultados.length * 2);
+                        }
+                        resultados[quantidadeResultados++] = i;
+                    }
+                }
+            }
+        }
+        return quantidadeResultados;
+    }
+
+    /**
+     * @param i posição no resultado da última query()
+     * @return o objeto do mapa encontrado
+     */
+    public MapObject result(int i) {
+        return objects.get(resultados[i]);
+    }
+
+    // A conversão para int trunca em vez de arredondar para baixo; a
+    // diferença só aparece abaixo da origem, onde o resultado é preso em 0
+    private int cellX(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) ((x - originX) / cellSize)));
+    }
+
+    private int cellY(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - originY) / cellSize)));
+    }
+}
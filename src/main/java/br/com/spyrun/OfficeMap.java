@@ -1,18 +1,241 @@
 package br.com.spyrun;
 
-import javafx.scene.canvas.GraphicsContext;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Classe OfficeMap
+ * Objetos de colisão do escritório e dimensões do mundo. O mapa pode
+ * vir de um arquivo texto ({@code .mapa}, carregado inteiro) ou de um
+ * arquivo compilado pelo {@link MapCompiler} ({@code .mapb}); neste caso
+ * só os chunks ao redor da câmera ficam carregados, e
+ * {@link #carregarAoRedor(AABB)} os atualiza a cada tick.
+ *
+ * Os objetos e a broadphase são trocados juntos, por referências novas,
+ * para que a thread do JavaFX possa desenhar enquanto a simulação
+ * carrega chunks. O mapa não desenha a si mesmo: as cores dos objetos
+ * são ARGB e o desenho fica com o {@link MapLayerCache}, para que a
+ * simulação não dependa do JavaFX.
+ */
 public class OfficeMap {
-    private List<MapObject> objects;
 
+    // Cor do chão do escritório (ARGB)
+    public static final int COR_CHAO = 0xFFB4B4B4;
+
+    // Recurso com o escritório padrão do protótipo
+    private static final String ESCRITORIO_PADRAO = "/mapas/escritorio.mapa";
+
+    // Dimensões do mundo
+    private final int largura;
+    private final int altura;
+
+    private volatile List<MapObject> objects;
+
+    // Broadphase estática construída a partir dos objetos
+    private volatile ObstacleIndex index;
+
+    // Incrementada sempre que os objetos carregados mudam (refaz o campo de fluxo)
+    private volatile int versao = 0;
+
+    // Incrementada só quando o desenho de uma área já carregada pode ter
+    // mudado (invalida a camada em cache). Carregar um chunk não muda o
+    // que já foi desenhado, porque um bloco só é desenhado com os chunks
+    // embaixo dele carregados
+    private volatile int versaoDesenho = 0;
+
+    // Chunks carregados sob demanda (null se o mapa está todo em memória)
+    private final MapStreamer streamer;
+
+    // Região em que os objetos do mapa estão carregados
+    private final AABB areaCarregada = new AABB();
+
+    /**
+     * Mapa com as dimensões do mundo padrão.
+     */
     public OfficeMap(List<MapObject> objects) {
+        this(GameWorld.WORLD_WIDTH, GameWorld.WORLD_HEIGHT, objects);
+    }
+
+    public OfficeMap(int largura, int altura, List<MapObject> objects) {
+        this.largura = largura;
+        this.altura = altura;
         this.objects = objects;
+        this.index = new ObstacleIndex(objects, ObstacleIndex.DEFAULT_CELL_SIZE);
+        this.streamer = null;
+        areaCarregada.set(0, 0, largura, altura);
+    }
+
+    /**
+     * Mapa compilado, inicialmente sem chunks carregados.
+     */
+    private OfficeMap(MapStreamer streamer) {
+        ChunkedMapFile arquivo = streamer.getArquivo();
+        this.largura = arquivo.getLargura();
+        this.altura = arquivo.getAltura();
+        this.objects = Collections.emptyList();
+        this.index = new ObstacleIndex(objects, ObstacleIndex.DEFAULT_CELL_SIZE);
+        this.streamer = streamer;
+        areaCarregada.set(0, 0, 0, 0);
+    }
+
+    /**
+     * Cria o escritório padrão do protótipo.
+     * @return o mapa com os objetos de colisão (paredes, mesas, etc.)
+     */
+    public static OfficeMap criarEscritorioPadrao() {
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(abrirEscritorioPadrao(), StandardCharsets.UTF_8))) {
+            return criar(MapCompiler.lerTexto(leitor, ESCRITORIO_PADRAO));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream abrirEscritorioPadrao() throws FileNotFoundException {
+        InputStream recurso = OfficeMap.class.getResourceAsStream(ESCRITORIO_PADRAO);
+        if (recurso == null) {
+            throw new FileNotFoundException(ESCRITORIO_PADRAO);
+        }
+        return recurso;
+    }
+
+    /**
+     * Hash (FNV-1a de 64 bits) dos bytes do arquivo do mapa. Os replays
+     * o gravam para conferir, na reprodução, que o mapa é o mesmo.
+     * @param arquivo arquivo do mapa, ou null para o escritório padrão
+     */
+    public static long hashConteudo(Path arquivo) throws IOException {
+        long hash = 0xcbf29ce484222325L;
+        try (InputStream entrada = arquivo != null ? Files.newInputStream(arquivo) : abrirEscritorioPadrao()) {
+            byte[] buffer = new byte[64 * 1024];
+            int lidos;
+            while ((lidos = entrada.read(buffer)) > 0) {
+                for (int i = 0; i < lidos; i++) {
+                    hash = (hash ^ (buffer[i] & 0xff)) * 0x100000001b3L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Carrega um mapa de arquivo: {@code .mapb} é aberto como mapa
+     * compilado, com chunks carregados sob demanda; qualquer outro
+     * nome é lido como texto e carregado inteiro.
+     */
+    public static OfficeMap carregar(Path arquivo) throws IOException {
+        if (arquivo.getFileName().toString().endsWith(".mapb")) {
+            return new OfficeMap(new MapStreamer(new ChunkedMapFile(arquivo)));
+        }
+        return criar(MapCompiler.lerTexto(arquivo));
+    }
+
+    private static OfficeMap criar(MapCompiler.Definicao definicao) {
+        return new OfficeMap(definicao.largura, definicao.altura, definicao.objetos);
     }
 
-    public void draw(GraphicsContext g, double cameraX, double cameraY) {
-        for (MapObject obj : objects) {
-            obj.draw(g, cameraX, cameraY);
+    /**
+     * Carrega os chunks próximos da área visível e descarta os distantes.
+     * Não faz nada em mapas carregados inteiros. Deve ser chamado pela
+     * thread da simulação.
+     * @param visivel área visível em coordenadas do mundo
+     */
+    public void carregarAoRedor(AABB visivel) {
+        if (streamer != null && streamer.atualizar(visivel)) {
+            List<MapObject> carregados = streamer.getObjetos();
+            index = new ObstacleIndex(carregados, ObstacleIndex.DEFAULT_CELL_SIZE);
+            objects = carregados;
+            streamer.areaCarregada(areaCarregada);
+            versao++;
         }
     }
+
+    public List<MapObject> getObjects() {
+        return objects;
+    }
+
+    public ObstacleIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Substitui os objetos do mapa, reconstruindo a broadphase
+     * e invalidando a camada de desenho em cache.
+     */
+    public void setObjects(List<MapObject> objects) {
+        this.index = new ObstacleIndex(objects, ObstacleIndex.DEFAULT_CELL_SIZE);
+        this.objects = objects;
+        versao++;
+        versaoDesenho++;
+    }
+
+    public int getVersao() {
+        return versao;
+    }
+
+    public int getVersaoDesenho() {
+        return versaoDesenho;
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    /**
+     * Região do mundo em que os objetos estão carregados (o mundo todo
+     * em mapas carregados inteiros). Posições fora dela podem estar
+     * dentro de objetos ainda não lidos. Não deve ser alterada.
+     */
+    public AABB getAreaCarregada() {
+        return areaCarregada;
+    }
+
+    /**
+     * @return chunks sob demanda, ou null se o mapa está todo em memória
+     */
+    public MapStreamer getStreamer() {
+        return streamer;
+    }
+
+    /**
+     * Verifica se a caixa intercepta algum objeto do mapa,
+     * testando apenas os objetos próximos.
+     */
+    public boolean colide(AABB caixa) {
+        return index.colide(caixa);
+    }
+
+    /**
+     * Verifica se a caixa com os limites informados intercepta algum objeto do mapa.
+     */
+    public boolean colide(double minX, double minY, double maxX, double maxY) {
+        return index.colide(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Primeiro contato de um círculo em movimento com algum objeto do mapa.
+     * @return fração do trecho no primeiro contato, ou {@link SweptCollision#SEM_IMPACTO}
+     */
+    public double primeiroImpacto(double x0, double y0, double x1, double y1, double raio) {
+        return index.primeiroImpacto(x0, y0, x1, y1, raio);
+    }
+
+    /**
+     * Verifica se o ponto está dentro de algum objeto do mapa.
+     */
+    public boolean contemPonto(double x, double y) {
+        return index.contemPonto(x, y);
+    }
 }
@@ -0,0 +1,128 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Classe ParallelEnemyUpdater
+ * Executa a atualização dos inimigos (direção, movimento contra o mapa
+ * e cooldown de tiro) em paralelo, dividindo os índices do
+ * {@link EnemyStore} em blocos de tamanho fixo processados por um
+ * ForkJoinPool.
+ *
+ * A fase paralela apenas lê o estado compartilhado (player e mapa) e
+ * escreve nas posições do próprio inimigo nos arrays. Os pedidos de
+ * tiro são guardados em um buffer por bloco e aplicados depois, na
+ * thread que chamou, na ordem dos blocos: assim as balas são criadas
+ * exatamente na mesma ordem da versão sequencial e o resultado é idêntico.
+ */
+public class ParallelEnemyUpdater {
+
+    /**
+     * Passo de atualização de um inimigo.
+     */
+    public interface Passo {
+        /**
+         * Atualiza o inimigo de índice {@code i} sem alterar estado
+         * compartilhado (inimigos mortos devem ser ignorados).
+         * @return true se o inimigo quer atirar neste tick
+         */
+        boolean atualizar(int i, double delta);
+    }
+
+    // Quantidade de inimigos por bloco de trabalho
+    static final int TAMANHO_BLOCO = 256;
+
+    private final ForkJoinPool pool;
+
+    // Índices dos inimigos que pediram para atirar, por bloco
+    private int[][] tirosPorBloco = new int[0][];
+    private int[] quantidadeTiros = new int[0];
+
+    public ParallelEnemyUpdater(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Atualiza todos os inimigos vivos em paralelo e depois aplica,
+     * em ordem, os disparos solicitados.
+     * @param quantidade quantidade de inimigos (não pode mudar durante a chamada)
+     * @param delta duração do tick
+     * @param passo atualização de um inimigo (executada em paralelo)
+     * @param atirar ação de disparo (executada na thread que chamou)
+     */
+    public void atualizar(int quantidade, double delta, Passo passo, IntConsumer atirar) {
+        int blocos = (quantidade + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        garantirBuffers(blocos);
+
+        // Fase paralela: cada bloco só escreve nos próprios inimigos e no próprio buffer
+        pool.invoke(new Tarefa(quantidade, delta, passo, 0, blocos));
+
+        // Fase sequencial: disparos na mesma ordem do laço sequencial
+        for (int b = 0; b < blocos; b++) {
+            int[] tiros = tirosPorBloco[b];
+            for (int k = 0; k < quantidadeTiros[b]; k++) {
+                atirar.accept(tiros[k]);
+            }
+        }
+    }
+
+    private void garantirBuffers(int blocos) {
+        if (tirosPorBloco.length < blocos) {
+            int antigos = tirosPorBloco.length;
+            tirosPorBloco = Arrays.copyOf(tirosPorBloco, blocos);
+            quantidadeTiros = Arrays.copyOf(quantidadeTiros, blocos);
+            for (int b = antigos; b < blocos; b++) {
+                tirosPorBloco[b] = new int[TAMANHO_BLOCO];
+            }
+        }
+    }
+
+    /**
+     * Divide recursivamente o intervalo de blocos até sobrar um bloco por tarefa.
+     */
+    private final class Tarefa extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int total;
+        private final double delta;
+        private final Passo passo;
+        private final int primeiroBloco;
+        private final int fimBlocos;
+
+        Tarefa(int total, double delta, Passo passo, int primeiroBloco, int fimBlocos) {
+            this.total = total;
+            this.delta = delta;
+            this.passo = passo;
+            this.primeiroBloco = primeiroBloco;
+            this.fimBlocos = fimBlocos;
+        }
+
+        @Override
+        protected void compute() {
+            if (fimBlocos - primeiroBloco > 1) {
+                int meio = (primeiroBloco + fimBlocos) >>> 1;
+                invokeAll(new Tarefa(total, delta, passo, primeiroBloco, meio),
+                        new Tarefa(total, delta, passo, meio, fimBlocos));
+                return;
+            }
+            if (primeiroBloco >= fimBlocos) {
+                return;
+            }
+
+            int b = primeiroBloco;
+            int inicio = b * TAMANHO_BLOCO;
+            int fim = Math.min(total, inicio + TAMANHO_BLOCO);
+            int[] tiros = tirosPorBloco[b];
+            int quantidade = 0;
+            for (int i = inicio; i < fim; i++) {
+                if (passo.atualizar(i, delta)) {
+                    tiros[quantidade++] = i;
+                }
+            }
+            quantidadeTiros[b] = quantidade;
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package br.com.spyrun;
 
-import javafx.scene.image.Image;
-import javafx.scene.shape.Rectangle;
-
 /**
  * Classe Player.
  * Representa o protagonista controlado pelo jogador.
- * Armazena posição, velocidade, vida e os sprites de personagem.
+ * Armazena posição, velocidade, vida e a direção usada para escolher o sprite.
  */
 public class Player implements Movable {
 
@@ -18,6 +15,14 @@ public class Player implements Movable {
     public double x;
     public double y;
 
+    // Posição no tick anterior, usada para interpolar o desenho
+    public double prevX;
+    public double prevY;
+
+    // Metade do lado da caixa de colisão (30x30) e a caixa reaproveitada
+    public static final double HALF_SIZE = 15;
+    private final AABB bounds = new AABB();
+
     // Velocidade de movimento do jogador (pixels por segundo)
     public double speed = 200;
 
@@ -28,13 +33,6 @@ public class Player implements Movable {
     // Direção atual do jogador para selecionar o sprite
     public Direction direction = Direction.DOWN;
 
-    // Sprites do jogador
-    private Image spriteUp;
-    private Image spriteDown;
-    private Image spriteLeft;
-    private Image spriteRight;
-    private Image defaultSprite;
-
     /**
      * Construtor do player.
      * @param x posição inicial X no mundo
@@ -43,63 +41,8 @@ public class Player implements Movable {
     public Player(double x, double y) {
         this.x = x;
         this.y = y;
-        loadSprites();
-    }
-
-    /**
-     * Carrega as imagens (sprites) do jogador a partir da pasta de resources.
-     */
-    private void loadSprites() {
-        try {
-            // Carrega o sprite padrão primeiro como garantia
-            defaultSprite = new Image(getClass().getResourceAsStream("/sprites/Player-down.png"));
-        } catch (Exception e) {
-            System.err.println("ERRO CRÍTICO: Não foi possível carregar o sprite padrão Player-down.png");
-            defaultSprite = null;
-        }
-        try {
-            spriteUp = new Image(getClass().getResourceAsStream("/sprites/Player-up.png"));
-        } catch (Exception e) {
-            System.err.println("Não foi possível carregar o sprite Player-up.png");
-            spriteUp = null;
-        }
-        try {
-            spriteDown = new Image(getClass().getResourceAsStream("/sprites/Player-down.png"));
-        } catch (Exception e) {
-            System.err.println("Não foi possível carregar o sprite Player-down.png");
-            spriteDown = null;
-        }
-        try {
-            spriteLeft = new Image(getClass().getResourceAsStream("/sprites/Player-left.png"));
-        } catch (Exception e) {
-            System.err.println("Não foi possível carregar o sprite Player-left.png");
-            spriteLeft = null;
-        }
-        try {
-            spriteRight = new Image(getClass().getResourceAsStream("/sprites/Player-right.png"));
-        } catch (Exception e) {
-            System.err.println("Não foi possível carregar o sprite Player-right.png");
-            spriteRight = null;
-        }
-    }
-
-    /**
-     * Retorna a imagem correspondente à direção atual do jogador.
-     * @return A imagem do sprite a ser desenhada.
-     */
-    public Image getImage() {
-        switch (direction) {
-            case UP:
-                return spriteUp != null ? spriteUp : defaultSprite;
-            case DOWN:
-                return spriteDown != null ? spriteDown : defaultSprite;
-            case LEFT:
-                return spriteLeft != null ? spriteLeft : defaultSprite;
-            case RIGHT:
-                return spriteRight != null ? spriteRight : defaultSprite;
-            default:
-                return defaultSprite;
-        }
+        this.prevX = x;
+        this.prevY = y;
     }
 
     /**
@@ -125,10 +68,11 @@ public class Player implements Movable {
 
     /**
      * Retorna o retângulo de colisão do jogador.
-     * @return um Rectangle 30x30 centrado no jogador.
+     * A mesma caixa é reaproveitada a cada chamada.
+     * @return um AABB 30x30 centrado no jogador.
      */
-    public Rectangle getBounds() {
-        return new Rectangle(x - 15, y - 15, 30, 30);
+    public AABB getBounds() {
+        return bounds.setCentro(x, y, HALF_SIZE, HALF_SIZE);
     }
 
     @Override
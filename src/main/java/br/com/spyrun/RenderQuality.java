@@ -0,0 +1,154 @@
+package br.com.spyrun;
+
+/**
+ * Classe RenderQuality
+ * Decide, a cada pulso do AnimationTimer, se um frame deve ser desenhado
+ * (limite de frames por segundo) e em qual escala de renderização.
+ *
+ * Com a qualidade adaptativa ligada, a escala desce um nível quando o
+ * intervalo médio entre frames passa do orçamento (frames perdidos) ou
+ * quando o desenho sozinho consome a maior parte dele, e volta a subir
+ * depois de um tempo com folga. Se um nível recém-recuperado voltar a
+ * estourar logo em seguida, a espera para tentar subir de novo dobra,
+ * para a escala não ficar oscilando entre dois níveis.
+ */
+public class RenderQuality {
+
+    // Menor escala aceita e fatores dos níveis abaixo da escala configurada
+    public static final double ESCALA_MINIMA = 0.25;
+    private static final double[] FATORES_NIVEL = {1.0, 0.75, 0.5};
+
+    // Orçamento por frame quando não há limite de FPS (60 quadros/s)
+    private static final long ORCAMENTO_PADRAO_NANOS = 1_000_000_000L / 60;
+
+    // Antecedência aceita em relação ao próximo frame, para absorver a
+    // variação do pulso do JavaFX (com 30 FPS, um frame a cada dois pulsos)
+    private static final long FOLGA_PULSO_NANOS = 4_000_000L;
+
+    // Peso de cada frame nas médias móveis
+    private static final double PESO_MEDIA = 0.1;
+
+    // Tempo mínimo em um nível antes de descer e, inicialmente, antes de subir
+    private static final long ESPERA_DESCIDA_NANOS = 1_000_000_000L;
+    private static final long ESPERA_SUBIDA_INICIAL_NANOS = 5_000_000_000L;
+    private static final long ESPERA_SUBIDA_MAXIMA_NANOS = 60_000_000_000L;
+
+    private final double[] escalas;
+    private final boolean adaptativa;
+    private final long intervaloMinimo;
+    private final long orcamento;
+
+    // Nível atual (índice em escalas; 0 = escala configurada)
+    private int nivel;
+
+    // Instante previsto para o próximo frame com limite de FPS
+    private long proximoFrame;
+
+    // Instante do último frame desenhado e médias móveis (ns)
+    private long ultimoFrame;
+    private double mediaIntervalo;
+    private double mediaDesenho;
+
+    // Controle das trocas de nível
+    private long ultimaTroca;
+    private boolean ultimaTrocaFoiSubida;
+    private long esperaSubida = ESPERA_SUBIDA_INICIAL_NANOS;
+
+    /**
+     * @param escala escala de renderização máxima (entre ESCALA_MINIMA e 1)
+     * @param fpsMaximo limite de frames por segundo (0 = sem limite)
+     * @param adaptativa true para reduzir a escala quando o frame estoura o orçamento
+     */
+    public RenderQuality(double escala, int fpsMaximo, boolean adaptativa) {
+        double maxima = Math.max(ESCALA_MINIMA, Math.min(1, escala));
+        escalas = new double[FATORES_NIVEL.length];
+        for (int i = 0; i < escalas.length; i++) {
+            escalas[i] = Math.max(ESCALA_MINIMA, maxima * FATORES_NIVEL[i]);
+        }
+        this.adaptativa = adaptativa;
+        intervaloMinimo = fpsMaximo > 0 ? 1_000_000_000L / fpsMaximo : 0;
+        orcamento = intervaloMinimo > 0 ? intervaloMinimo : ORCAMENTO_PADRAO_NANOS;
+    }
+
+    /**
+     * @param agora instante do pulso (o {@code now} do AnimationTimer)
+     * @return false se o frame deve ser pulado para respeitar o limite de FPS
+     */
+    public boolean deveDesenhar(long agora) {
+        if (intervaloMinimo == 0) {
+            return true;
+        }
+        if (agora < proximoFrame - FOLGA_PULSO_NANOS) {
+            return false;
+        }
+        // Mantém a cadência; depois de um atraso longo recomeça a partir de agora
+        proximoFrame = agora - proximoFrame > intervaloMinimo ? agora + intervaloMinimo : proximoFrame + intervaloMinimo;
+        return true;
+    }
+
+    /**
+     * Registra um frame desenhado e ajusta a escala se necessário.
+     * @param agora instante do pulso em que o frame foi desenhado
+     * @param duracaoDesenho tempo gasto desenhando o frame (ns)
+     * @return true se a escala mudou
+     */
+    public boolean registrarFrame(long agora, long duracaoDesenho) {
+        if (ultimoFrame == 0) {
+            ultimoFrame = agora;
+            ultimaTroca = agora;
+            mediaIntervalo = orcamento;
+            mediaDesenho = duracaoDesenho;
+            return false;
+        }
+        mediaIntervalo += (agora - ultimoFrame - mediaIntervalo) * PESO_MEDIA;
+        mediaDesenho += (duracaoDesenho - mediaDesenho) * PESO_MEDIA;
+        ultimoFrame = agora;
+        if (!adaptativa) {
+            return false;
+        }
+
+        long noNivel = agora - ultimaTroca;
+        boolean estourou = mediaIntervalo > orcamento * 1.25 || mediaDesenho > orcamento * 0.75;
+        boolean folgado = mediaIntervalo < orcamento * 1.1 && mediaDesenho < orcamento * 0.35;
+        if (estourou && nivel < escalas.length - 1 && noNivel >= ESPERA_DESCIDA_NANOS) {
+            // Um nível que estoura logo depois de recuperado demora mais para ser tentado de novo
+            if (ultimaTrocaFoiSubida && noNivel < esperaSubida) {
+                esperaSubida = Math.min(ESPERA_SUBIDA_MAXIMA_NANOS, esperaSubida * 2);
+            }
+            trocarNivel(nivel + 1, agora, false);
+            return true;
+        }
+        if (folgado && nivel > 0 && noNivel >= esperaSubida) {
+            trocarNivel(nivel - 1, agora, true);
+            return true;
+        }
+        return false;
+    }
+
+    private void trocarNivel(int novo, long agora, boolean subida) {
+        nivel = novo;
+        ultimaTroca = agora;
+        ultimaTrocaFoiSubida = subida;
+        // As médias do nível anterior não valem para o novo
+        mediaIntervalo = orcamento;
+        mediaDesenho = 0;
+    }
+
+    /**
+     * @return escala de renderização atual (1 = tamanho real)
+     */
+    public double getEscala() {
+        return escalas[nivel];
+    }
+
+    /**
+     * @return escalas que a qualidade adaptativa pode usar, da maior para a menor
+     */
+    public double[] getEscalas() {
+        return adaptativa ? escalas.clone() : new double[] {escalas[0]};
+    }
+
+    public double getMediaIntervaloNanos() {
+        return mediaIntervalo;
+    }
+}
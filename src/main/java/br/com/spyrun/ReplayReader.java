@@ -0,0 +1,187 @@
+package br.com.spyrun;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Classe ReplayReader
+ * Lê um replay gravado pelo {@link ReplayRecorder} e devolve a entrada
+ * de cada tick, na ordem. Com a mesma semente e as mesmas entradas o
+ * {@link GameWorld} percorre exatamente os mesmos estados, com ou sem
+ * janela, desde que o mapa seja o mesmo: {@link #carregarMapa()} carrega
+ * o mapa da gravação e falha se o conteúdo dele mudou.
+ *
+ * Um arquivo truncado ou corrompido resulta em uma {@link IOException}
+ * com a descrição do problema, nunca em outro tipo de exceção ou em uma
+ * reprodução sem fim.
+ */
+public class ReplayReader implements AutoCloseable {
+
+    // Limite de disparos em um tick; acima disso o registro está corrompido
+    private static final int MAX_TIROS_POR_TICK = 1024;
+
+    private final DataInputStream entrada;
+
+    // Dados do cabeçalho
+    private final byte versao;
+    private final long semente;
+    private final double hz;
+    private final int viewWidth;
+    private final int viewHeight;
+    private final String mapa;
+    private final long hashMapa;
+
+    // Registro atual: estado e ticks que ainda faltam entregar
+    private int estado;
+    private int ticksRestantes;
+    private boolean terminou;
+
+    /**
+     * Abre o arquivo e lê o cabeçalho.
+     * @throws IOException se o arquivo não é um replay válido ou está truncado
+     */
+    public ReplayReader(Path arquivo) throws IOException {
+        entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)));
+        try {
+            if (entrada.readInt() != ReplayRecorder.MAGIA) {
+                throw new IOException("Arquivo de replay inválido: " + arquivo);
+            }
+            versao = entrada.readByte();
+            if (versao != 1 && versao != ReplayRecorder.VERSAO) {
+                throw new IOException("Versão de replay não suportada: " + versao);
+            }
+            semente = entrada.readLong();
+            hz = entrada.readDouble();
+            viewWidth = entrada.readInt();
+            viewHeight = entrada.readInt();
+            // A versão 1 não identificava o mapa; elas eram gravadas no escritório padrão
+            mapa = versao >= 2 ? entrada.readUTF() : "";
+            hashMapa = versao >= 2 ? entrada.readLong() : 0;
+            if (!(hz > 0) || viewWidth <= 0 || viewHeight <= 0) {
+                throw new IOException("Replay corrompido: cabeçalho inválido em " + arquivo);
+            }
+        } catch (EOFException e) {
+            entrada.close();
+            throw new IOException("Replay truncado no cabeçalho: " + arquivo, e);
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Carrega o mapa em que o replay foi gravado.
+     * @throws IOException se o mapa não pôde ser lido ou se o conteúdo
+     *         dele não é o da gravação
+     */
+    public OfficeMap carregarMapa() throws IOException {
+        Path arquivo = mapa.isEmpty() ? null : Paths.get(mapa);
+        if (versao >= 2) {
+            long hash = OfficeMap.hashConteudo(arquivo);
+            if (hash != hashMapa) {
+                throw new IOException(String.format(
+                        "O mapa %s não é o mesmo da gravação do replay (hash %016x, esperado %016x)",
+                        arquivo != null ? arquivo : "padrão", hash, hashMapa));
+            }
+        } else {
+            System.err.println("Aviso: replay da versão 1 não identifica o mapa; usando o escritório padrão.");
+        }
+        return arquivo != null ? OfficeMap.carregar(arquivo) : OfficeMap.criarEscritorioPadrao();
+    }
+
+    /**
+     * Preenche a entrada do próximo tick.
+     * @return false quando o replay terminou
+     * @throws IOException se o arquivo acaba no meio de um registro ou
+     *         tem um registro inválido
+     */
+    public boolean proximoTick(TickInput saida) throws IOException {
+        saida.tiros = 0;
+        if (terminou) {
+            return false;
+        }
+        if (ticksRestantes == 0) {
+            int lido = entrada.read();
+            if (lido < 0) {
+                terminou = true;
+                return false;
+            }
+            if ((lido & ~(ReplayRecorder.BIT_TIROS | 0x3F)) != 0) {
+                throw new IOException("Replay corrompido: estado inválido " + lido);
+            }
+            estado = lido;
+            ticksRestantes = lerVarint();
+            if (ticksRestantes < 1) {
+                throw new IOException("Replay corrompido: registro com " + ticksRestantes + " ticks");
+            }
+            if ((estado & ReplayRecorder.BIT_TIROS) != 0) {
+                int tiros = lerVarint();
+                if (ticksRestantes != 1 || tiros < 1 || tiros > MAX_TIROS_POR_TICK) {
+                    throw new IOException("Replay corrompido: registro de disparos inválido");
+                }
+                try {
+                    for (int i = 0; i < tiros; i++) {
+                        saida.adicionarTiro(entrada.readFloat(), entrada.readFloat());
+                    }
+                } catch (EOFException e) {
+                    throw new IOException("Replay truncado no meio de um registro", e);
+                }
+            }
+        }
+        ticksRestantes--;
+        saida.up = (estado & 1) != 0;
+        saida.down = (estado & (1 << 1)) != 0;
+        saida.left = (estado & (1 << 2)) != 0;
+        saida.right = (estado & (1 << 3)) != 0;
+        saida.direcao = Player.Direction.values()[(estado >> 4) & 3];
+        return true;
+    }
+
+    public long getSemente() {
+        return semente;
+    }
+
+    public double getHz() {
+        return hz;
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    /**
+     * @return caminho do mapa da gravação ("" para o escritório padrão)
+     */
+    public String getMapa() {
+        return mapa;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    private int lerVarint() throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new IOException("Replay truncado no meio de um registro");
+            }
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Replay corrompido: número com mais de 5 bytes");
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.spyrun;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Classe ReplayRecorder
+ * Grava em um arquivo binário compacto a semente do mundo e a entrada
+ * de cada tick ({@link TickInput}), para que a mesma partida possa ser
+ * reproduzida depois com o {@link ReplayReader}.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * cabeçalho: int MAGIA, byte VERSAO, long semente, double hz,
+ *            int viewWidth, int viewHeight, UTF mapa, long hashMapa
+ * registros: byte estado, varint ticks, [varint tiros, tiros x (float x, float y)]
+ * </pre>
+ * O byte de estado guarda as quatro teclas (bits 0-3), a direção do
+ * sprite (bits 4-5) e se há disparos (bit 6). Ticks seguidos com o mesmo
+ * estado e sem disparos viram um único registro com a quantidade de
+ * ticks; um tick com disparos é sempre um registro próprio.
+ *
+ * O mapa é identificado pelo caminho do arquivo (vazio para o escritório
+ * padrão) e pelo hash do conteúdo ({@link OfficeMap#hashConteudo}); a
+ * versão 1 do formato não tinha esses campos.
+ */
+public class ReplayRecorder implements AutoCloseable {
+
+    // "SPYR" e versão do formato
+    public static final int MAGIA = 0x53505952;
+    public static final byte VERSAO = 2;
+
+    // Bit do byte de estado que indica disparos no tick
+    static final int BIT_TIROS = 1 << 6;
+
+    private final DataOutputStream saida;
+
+    // Registro em aberto: estado e quantos ticks seguidos ele já cobre
+    private int estadoAtual = -1;
+    private int ticksAtuais;
+
+    /**
+     * Cria o arquivo e grava o cabeçalho.
+     * @param arquivo destino do replay
+     * @param semente semente do Random usado pelo GameWorld
+     * @param hz frequência da simulação
+     * @param mapa caminho do arquivo do mapa ("" para o escritório padrão)
+     * @param hashMapa hash do conteúdo do mapa
+     */
+    public ReplayRecorder(Path arquivo, long semente, double hz, int viewWidth, int viewHeight,
+                          String mapa, long hashMapa) throws IOException {
+        saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo)));
+        saida.writeInt(MAGIA);
+        saida.writeByte(VERSAO);
+        saida.writeLong(semente);
+        saida.writeDouble(hz);
+        saida.writeInt(viewWidth);
+        saida.writeInt(viewHeight);
+        saida.writeUTF(mapa);
+        saida.writeLong(hashMapa);
+    }
+
+    /**
+     * Grava a entrada de um tick.
+     */
+    public void gravar(TickInput entrada) throws IOException {
+        int estado = codificarEstado(entrada);
+        if (entrada.tiros == 0 && estado == estadoAtual) {
+            ticksAtuais++;
+            return;
+        }
+        descarregar();
+        if (entrada.tiros == 0) {
+            estadoAtual = estado;
+            ticksAtuais = 1;
+            return;
+        }
+        saida.writeByte(estado | BIT_TIROS);
+        escreverVarint(1);
+        escreverVarint(entrada.tiros);
+        for (int i = 0; i < entrada.tiros; i++) {
+            saida.writeFloat(entrada.tiroX[i]);
+            saida.writeFloat(entrada.tiroY[i]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        descarregar();
+        saida.close();
+    }
+
+    /**
+     * Escreve o registro em aberto, se houver.
+     */
+    private void descarregar() throws IOException {
+        if (estadoAtual >= 0) {
+            saida.writeByte(estadoAtual);
+            escreverVarint(ticksAtuais);
+            estadoAtual = -1;
+            ticksAtuais = 0;
+        }
+    }
+
+    static int codificarEstado(TickInput entrada) {
+        int estado = 0;
+        if (entrada.up) estado |= 1;
+        if (entrada.down) estado |= 1 << 1;
+        if (entrada.left) estado |= 1 << 2;
+        if (entrada.right) estado |= 1 << 3;
+        estado |= entrada.direcao.ordinal() << 4;
+        return estado;
+    }
+
+    /**
+     * Inteiro sem sinal em 7 bits por byte (bit 7 = continua).
+     */
+    private void escreverVarint(int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            saida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        saida.writeByte(valor);
+    }
+}
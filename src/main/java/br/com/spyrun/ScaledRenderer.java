@@ -0,0 +1,50 @@
+package br.com.spyrun;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classe ScaledRenderer
+ * Desenha o mundo na janela com uma escala de renderização escolhida a
+ * cada frame. Na escala 1 o {@link GameRenderer} desenha direto no
+ * canvas da janela; abaixo disso ele compõe o frame em uma camada de
+ * pixels reduzida, ampliada no canvas sem suavização (pixels nítidos em
+ * vez de borrados).
+ *
+ * Cada escala usada ganha seu próprio renderizador (com a camada e os
+ * blocos do mapa naquela escala), criado na primeira vez em que ela é
+ * pedida e mantido para as trocas seguintes; o atlas de cada escala vem
+ * de {@link SpriteAtlas#obter}.
+ */
+public class ScaledRenderer {
+
+    private final GraphicsContext g;
+    private final double viewWidth;
+    private final double viewHeight;
+
+    // Renderizadores já criados, por escala
+    private final Map<Double, GameRenderer> renderers = new HashMap<>();
+
+    /**
+     * @param g contexto do canvas da janela
+     * @param viewWidth largura da área visível
+     * @param viewHeight altura da área visível
+     */
+    public ScaledRenderer(GraphicsContext g, double viewWidth, double viewHeight) {
+        this.g = g;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    /**
+     * Desenha o snapshot na escala pedida.
+     * @param escala fator de resolução (1 = tamanho real)
+     */
+    public void desenhar(WorldSnapshot snapshot, double alpha, double escala) {
+        double efetiva = Math.min(1, escala);
+        renderers.computeIfAbsent(efetiva, e -> new GameRenderer(g, viewWidth, viewHeight, e))
+                .desenhar(snapshot, alpha);
+    }
+}
@@ -0,0 +1,260 @@
+package br.com.spyrun;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Classe SimulationThread
+ * Executa o {@link GameWorld} em uma thread própria, em passos fixos,
+ * separada da thread do JavaFX. A entrada chega por uma fila sem locks
+ * e, ao fim de cada tick, o estado visível é publicado em um
+ * {@link SnapshotBuffer} para o desenho.
+ *
+ * A entrada de cada tick pode ser gravada ({@link ReplayRecorder}) ou
+ * vir de um replay ({@link ReplayReader}); quando o replay termina, a
+ * entrada volta a ser a do jogador.
+ */
+public class SimulationThread {
+
+    // Máximo de atraso que a simulação tenta recuperar; além disso o
+    // relógio é reiniciado, evitando a "espiral da morte" após pausas longas
+    private static final long MAX_ATRASO_NANOS = 250_000_000L;
+
+    private final GameWorld world;
+    private final SnapshotBuffer snapshots;
+    private final double viewWidth;
+    private final double viewHeight;
+
+    // Duração de um tick
+    private final double fixedDelta;
+    private final long passoNanos;
+
+    // Entradas enviadas pela thread do JavaFX
+    private final Queue<InputEvent> entradas = new ConcurrentLinkedQueue<>();
+
+    // Estado das teclas de direção, mantido pela thread da simulação
+    private boolean up, down, left, right;
+    private Player.Direction direcao = Player.Direction.DOWN;
+
+    // Entrada aplicada no tick atual
+    private final TickInput entradaTick = new TickInput();
+
+    // Gravação ou reprodução das entradas (opcionais)
+    private ReplayRecorder gravador;
+    private ReplayReader reprodutor;
+
+    // Métricas das fases executadas fora do GameWorld (opcional)
+    private MetricsRegistry metricas;
+    private MetricsRegistry.Serie serieEntrada, serieSnapshot;
+
+    private volatile boolean rodando;
+    private Thread thread;
+
+    /**
+     * @param world mundo simulado (passa a ser acessado só por esta thread)
+     * @param snapshots buffer onde os snapshots são publicados
+     * @param simulationHz ticks por segundo
+     */
+    public SimulationThread(GameWorld world, SnapshotBuffer snapshots, double simulationHz,
+                            double viewWidth, double viewHeight) {
+        this.world = world;
+        this.snapshots = snapshots;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.fixedDelta = 1.0 / simulationHz;
+        this.passoNanos = (long) (1_000_000_000L / simulationHz);
+    }
+
+    /**
+     * Envia uma entrada para ser aplicada no próximo tick. Pode ser
+     * chamado de qualquer thread.
+     */
+    public void enviar(InputEvent evento) {
+        entradas.offer(evento);
+    }
+
+    /**
+     * Registra também o tempo de aplicar as entradas e de copiar o snapshot.
+     * Deve ser chamado antes de {@link #iniciar()}.
+     */
+    public void setMetricas(MetricsRegistry metricas) {
+        this.metricas = metricas;
+        serieEntrada = metricas.serie("entrada", MetricsRegistry.Unidade.NANOS);
+        serieSnapshot = metricas.serie("snapshot", MetricsRegistry.Unidade.NANOS);
+        world.setMetricas(metricas);
+    }
+
+    /**
+     * Grava a entrada de cada tick no replay informado. Deve ser chamado
+     * antes de {@link #iniciar()}; o arquivo é fechado em {@link #parar()}.
+     */
+    public void setGravador(ReplayRecorder gravador) {
+        this.gravador = gravador;
+    }
+
+    /**
+     * Usa as entradas do replay em vez das do jogador, até ele terminar.
+     * Deve ser chamado antes de {@link #iniciar()}.
+     */
+    public void setReprodutor(ReplayReader reprodutor) {
+        this.reprodutor = reprodutor;
+    }
+
+    /**
+     * Publica o estado inicial e inicia a thread da simulação.
+     */
+    public void iniciar() {
+        publicarSnapshot();
+        rodando = true;
+        thread = new Thread(this::executar, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Pede para a simulação parar e espera a thread terminar.
+     */
+    public void parar() {
+        rodando = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        fecharGravador();
+        fecharReprodutor();
+    }
+
+    public double getFixedDelta() {
+        return fixedDelta;
+    }
+
+    private void executar() {
+        long proximoTick = System.nanoTime();
+        while (rodando) {
+            boolean medir = metricas != null && metricas.isAtivo();
+            long inicio = medir ? System.nanoTime() : 0;
+            prepararEntrada();
+            entradaTick.aplicar(world);
+            if (medir) serieEntrada.registrar(System.nanoTime() - inicio);
+
+            world.atualizar(fixedDelta);
+
+            inicio = medir ? System.nanoTime() : 0;
+            publicarSnapshot();
+            if (medir) serieSnapshot.registrar(System.nanoTime() - inicio);
+
+            // Espera até o próximo tick, sem acumular atraso demais
+            proximoTick += passoNanos;
+            long espera = proximoTick - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            } else if (-espera > MAX_ATRASO_NANOS) {
+                proximoTick = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Monta a entrada do tick: consome os eventos pendentes do jogador e,
+     * se houver um replay em andamento, substitui-os pelos gravados.
+     * A entrada final é gravada, se houver gravação.
+     */
+    private void prepararEntrada() {
+        entradaTick.tiros = 0;
+        InputEvent evento;
+        while ((evento = entradas.poll()) != null) {
+            switch (evento.tipo) {
+                case MOVIMENTO:
+                    aplicarMovimento(evento.direcao, evento.pressionada);
+                    break;
+                case TIRO:
+                    entradaTick.adicionarTiro(evento.x, evento.y);
+                    break;
+                default:
+                    break;
+            }
+        }
+        copiarTeclas();
+
+        if (reprodutor != null) {
+            try {
+                if (!reprodutor.proximoTick(entradaTick)) {
+                    System.out.println("Replay terminado.");
+                    fecharReprodutor();
+                    copiarTeclas();
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao ler o replay: " + e.getMessage());
+                fecharReprodutor();
+                entradaTick.tiros = 0;
+                copiarTeclas();
+            }
+        }
+
+        if (gravador != null) {
+            try {
+                gravador.gravar(entradaTick);
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar o replay: " + e.getMessage());
+                fecharGravador();
+            }
+        }
+    }
+
+    /**
+     * Copia para a entrada do tick o estado atual das teclas do jogador.
+     */
+    private void copiarTeclas() {
+        entradaTick.up = up;
+        entradaTick.down = down;
+        entradaTick.left = left;
+        entradaTick.right = right;
+        entradaTick.direcao = direcao;
+    }
+
+    private void aplicarMovimento(Player.Direction direcao, boolean pressionada) {
+        switch (direcao) {
+            case UP: up = pressionada; break;
+            case DOWN: down = pressionada; break;
+            case LEFT: left = pressionada; break;
+            case RIGHT: right = pressionada; break;
+            default: break;
+        }
+        if (pressionada) {
+            this.direcao = direcao;
+        }
+    }
+
+    private void fecharGravador() {
+        if (gravador != null) {
+            try {
+                gravador.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar o replay: " + e.getMessage());
+            }
+            gravador = null;
+        }
+    }
+
+    private void fecharReprodutor() {
+        if (reprodutor != null) {
+            try {
+                reprodutor.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar o replay: " + e.getMessage());
+            }
+            reprodutor = null;
+        }
+    }
+
+    private void publicarSnapshot() {
+        snapshots.paraEscrita().capturar(world, viewWidth, viewHeight);
+        snapshots.publicar();
+    }
+}
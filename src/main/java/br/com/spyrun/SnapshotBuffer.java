@@ -0,0 +1,57 @@
+package br.com.spyrun;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe SnapshotBuffer
+ * Troca de {@link WorldSnapshot} entre a thread da simulação (escritora)
+ * e a thread do JavaFX (leitora) sem locks.
+ *
+ * São usados três snapshots: um sendo escrito, um sendo lido e um
+ * "do meio", o último publicado. Publicar e adquirir são apenas uma
+ * troca atômica com o do meio, então nenhuma thread espera pela outra
+ * e a leitora nunca vê um snapshot pela metade.
+ */
+public class SnapshotBuffer {
+
+    // Bit que indica que o snapshot do meio ainda não foi lido
+    private static final int NOVO = 4;
+
+    private final WorldSnapshot[] snapshots = {
+        new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()
+    };
+
+    // Índice do snapshot do meio (bits 0-1) e flag NOVO
+    private final AtomicInteger meio = new AtomicInteger(1);
+
+    // Índices exclusivos de cada lado
+    private int escrita = 0;
+    private int leitura = 2;
+
+    /**
+     * @return o snapshot que a simulação deve preencher agora
+     */
+    public WorldSnapshot paraEscrita() {
+        return snapshots[escrita];
+    }
+
+    /**
+     * Publica o snapshot preenchido e passa a escrever no antigo do meio.
+     * Chamado apenas pela thread da simulação.
+     */
+    public void publicar() {
+        escrita = meio.getAndSet(escrita | NOVO) & 3;
+    }
+
+    /**
+     * Retorna o snapshot mais recente publicado. Se não houver um novo
+     * desde a última chamada, devolve o mesmo da vez anterior.
+     * Chamado apenas pela thread do JavaFX.
+     */
+    public WorldSnapshot paraLeitura() {
+        if ((meio.get() & NOVO) != 0) {
+            leitura = meio.getAndSet(leitura) & 3;
+        }
+        return snapshots[leitura];
+    }
+}
@@ -0,0 +1,278 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+
+/**
+ * Classe SpatialGrid
+ * Índice espacial em grade uniforme sobre o mundo do jogo.
+ * Cada célula guarda uma lista encadeada (em arrays) dos itens
+ * inseridos nela, de modo que as consultas por raio só visitam
+ * as células vizinhas ao ponto consultado.
+ *
+ * Só as células ocupadas existem: o início da lista de cada uma fica
+ * em uma tabela de hash (endereçamento aberto) indexada pela célula,
+ * e a limpeza apaga apenas as entradas usadas desde a última limpeza.
+ * Assim o custo não depende do tamanho do mundo.
+ *
+ * Os itens são identificados por um índice inteiro (por exemplo,
+ * a posição do inimigo na lista ou da bala no {@link BulletPool}).
+ * A grade é pensada para ser limpa e reconstruída a cada tick:
+ * inserir, limpar e consultar não alocam memória depois que a
+ * capacidade interna se estabiliza.
+ */
+public class SpatialGrid {
+
+    // Tamanho (em pixels) do lado de cada célula
+    private final double cellSize;
+
+    // Quantidade de colunas e linhas da grade
+    private final int cols;
+    private final int rows;
+
+    // Tabela de hash das células ocupadas: célula (-1 = entrada livre)
+    // e índice do primeiro item da célula
+    private int[] celulas;
+    private int[] cellHead;
+
+    // Entradas da tabela usadas desde a última limpeza
+    private int[] usadas;
+    private int quantidadeUsadas;
+
+    // Próximo item na mesma célula (-1 no fim da lista)
+    private int[] next;
+
+    // Itens inseridos e suas posições no momento da inserção
+    private int[] items;
+    private double[] itemX;
+    private double[] itemY;
+
+    // Quantidade de itens atualmente na grade
+    private int count;
+
+    // Resultado da última consulta
+    private int[] resultados;
+    private int quantidadeResultados;
+
+    /**
+     * Construtor da grade.
+     * @param worldWidth largura do mundo coberto pela grade
+     * @param worldHeight altura do mundo coberto pela grade
+     * @param cellSize lado de cada célula (idealmente >= maior raio consultado)
+     */
+    public SpatialGrid(double worldWidth, double worldHeight, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+
+        int capacidadeInicial = 64;
+        this.celulas = new int[capacidadeInicial * 2];
+        this.cellHead = new int[capacidadeInicial * 2];
+        this.usadas = new int[capacidadeInicial];
+        Arrays.fill(celulas, -1);
+        this.next = new int[capacidadeInicial];
+        this.items = new int[capacidadeInicial];
+        this.itemX = new double[capacidadeInicial];
+        this.itemY = new double[capacidadeInicial];
+        this.resultados = new int[capacidadeInicial];
+    }
+
+    /**
+     * Remove todos os itens da grade, mantendo a memória alocada.
+     */
+    public void clear() {
+        for (int k = 0; k < quantidadeUsadas; k++) {
+            celulas[usadas[k]] = -1;
+        }
+        quantidadeUsadas = 0;
+        count = 0;
+    }
+
+    /**
+     * Insere um item na célula correspondente à posição informada.
+     * Posições fora do mundo são presas à borda da grade.
+     * @param item índice do item a ser indexado
+     * @param x posição X do item no mundo
+     * @param y posição Y do item no mundo
+     */
+    public void insert(int item, double x, double y) {
+        if (count == items.length) {
+            crescer();
+        }
+        int entrada = entrada(cellIndex(cellX(x), cellY(y)));
+        items[count] = item;
+        itemX[count] = x;
+        itemY[count] = y;
+        next[count] = cellHead[entrada];
+        cellHead[entrada] = count;
+        count++;
+    }
+
+    /**
+     * Coleta todos os itens cuja distância ao ponto é menor que o raio.
+     * Os itens encontrados ficam disponíveis em {@link #result(int)}
+     * até a próxima consulta.
+     * @param x posição X do centro da consulta
+     * @param y posição Y do centro da consulta
+     * @param radius raio da consulta
+     * @return quantidade de itens encontrados
+     */
+    public int queryRadius(double x, double y, double radius) {
+        quantidadeResultados = 0;
+        double radius2 = radius * radius;
+
+        int minCX = cellX(x - radius);
+        int maxCX = cellX(x + radius);
+        int minCY = cellY(y - radius);
+        int maxCY = cellY(y + radius);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (int i = primeiro(cellIndex(cx, cy)); i != -1; i = next[i]) {
+                    double dx = itemX[i] - x;
+                    double dy = itemY[i] - y;
+                    if (dx * dx + dy * dy < radius2) {
+                        adicionarResultado(items[i]);
+                    }
+                }
+            }
+        }
+        return quantidadeResultados;
+    }
+
+    /**
+     * Coleta todos os itens cuja posição está dentro da caixa informada
+     * (usado, por exemplo, para selecionar o que aparece na tela).
+     * Os itens encontrados ficam disponíveis em {@link #result(int)}
+     * até a próxima consulta.
+     * @param area região consultada
+     * @return quantidade de itens encontrados
+     */
+    public int queryArea(AABB area) {
+        quantidadeResultados = 0;
+
+        int minCX = cellX(area.minX);
+        int maxCX = cellX(area.maxX);
+        int minCY = cellY(area.minY);
+        int maxCY = cellY(area.maxY);
+
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (int i = primeiro(cellIndex(cx, cy)); i != -1; i = next[i]) {
+                    if (area.contains(itemX[i], itemY[i])) {
+                        adicionarResultado(items[i]);
+                    }
+                }
+            }
+        }
+        return quantidadeResultados;
+    }
+
+    /**
+     * @param i posição no resultado da última consulta
+     * @return índice do item encontrado
+     */
+    public int result(int i) {
+        return resultados[i];
+    }
+
+    /**
+     * @return quantidade de itens atualmente na grade
+     */
+    public int size() {
+        return count;
+    }
+
+    private int cellX(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int cellY(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+    private int cellIndex(int cx, int cy) {
+        return cy * cols + cx;
+    }
+
+    private int posicaoInicial(int cell) {
+        return (cell * 0x9E3779B9 >>> 8) & (celulas.length - 1);
+    }
+
+    /**
+     * @return índice do primeiro item da célula (-1 se ela está vazia)
+     */
+    private int primeiro(int cell) {
+        int mascara = celulas.length - 1;
+        for (int e = posicaoInicial(cell); celulas[e] != -1; e = (e + 1) & mascara) {
+            if (celulas[e] == cell) {
+                return cellHead[e];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna a entrada da célula na tabela, criando-a (vazia) se preciso.
+     */
+    private int entrada(int cell) {
+        int mascara = celulas.length - 1;
+        int e = posicaoInicial(cell);
+        for (; celulas[e] != -1; e = (e + 1) & mascara) {
+            if (celulas[e] == cell) {
+                return e;
+            }
+        }
+        // Mantém a tabela no máximo meio cheia
+        if (quantidadeUsadas * 2 >= celulas.length - 2) {
+            redistribuir();
+            return entrada(cell);
+        }
+        celulas[e] = cell;
+        cellHead[e] = -1;
+        if (quantidadeUsadas == usadas.length) {
+            usadas = Arrays.copyOf(usadas, usadas.length * 2);
+        }
+        usadas[quantidadeUsadas++] = e;
+        return e;
+    }
+
+    /**
+     * Dobra a tabela de células, reposicionando as entradas usadas.
+     */
+    private void redistribuir() {
+        int[] antigasCelulas = celulas;
+        int[] antigasCabecas = cellHead;
+        celulas = new int[antigasCelulas.length * 2];
+        cellHead = new int[celulas.length];
+        Arrays.fill(celulas, -1);
+        int mascara = celulas.length - 1;
+        for (int k = 0; k < quantidadeUsadas; k++) {
+            int antiga = usadas[k];
+            int e = posicaoInicial(antigasCelulas[antiga]);
+            while (celulas[e] != -1) {
+                e = (e + 1) & mascara;
+            }
+            celulas[e] = antigasCelulas[antiga];
+            cellHead[e] = antigasCabecas[antiga];
+            usadas[k] = e;
+        }
+    }
+
+    private void adicionarResultado(int item) {
+        if (quantidadeResultados == resultados.length) {
+            resultados = Arrays.copyOf(resultados, resultados.length * 2);
+        }
+        resultados[quantidadeResultados++] = item;
+    }
+
+    /**
+     * Dobra a capacidade dos arrays internos.
+     */
+    private void crescer() {
+        int novaCapacidade = items.length * 2;
+        next = Arrays.copyOf(next, novaCapacidade);
+        items = Arrays.copyOf(items, novaCapacidade);
+        itemX = Arrays.copyOf(itemX, novaCapacidade);
+        itemY = Arrays.copyOf(itemY, novaCapacidade);
+    }
+}
@@ -0,0 +1,228 @@
+package br.com.spyrun;
+
+import java.util.Random;
+
+/**
+ * Classe SpawnDirector
+ * Controla o surgimento de inimigos e corações no {@link GameWorld}.
+ *
+ * Os pedidos de spawn (temporizadores e ondas) entram em uma fila de
+ * pendentes e são atendidos aos poucos, no máximo {@code orcamentoPorTick}
+ * por tick, para que uma onda grande não concentre as alocações e o
+ * custo em um único frame. A população de inimigos e de corações tem
+ * um limite máximo.
+ *
+ * As posições são sorteadas por amostragem com rejeição: um ponto é
+ * descartado se a caixa da entidade colidir com o mapa (consultando a
+ * broadphase do {@link OfficeMap}) ou se estiver perto demais do player.
+ * Se nenhuma tentativa der certo, o pedido continua pendente para o
+ * próximo tick.
+ */
+public class SpawnDirector {
+
+    // Intervalo em segundos para pedir um novo inimigo
+    public static final double ENEMY_SPAWN_INTERVAL = 5.0;
+
+    // Intervalo em segundos para pedir um novo coração
+    public static final double HEART_SPAWN_INTERVAL = 10.0;
+
+    // Valores padrão do orçamento por tick e das populações máximas
+    public static final int ORCAMENTO_PADRAO = 16;
+    public static final int MAX_INIMIGOS_PADRAO = 2000;
+    public static final int MAX_CORACOES_PADRAO = 10;
+
+    // Tentativas de sorteio de posição para cada spawn
+    private static final int TENTATIVAS_POR_SPAWN = 8;
+
+    // Distância mínima entre o player e um inimigo recém-criado
+    private static final double DISTANCIA_MINIMA_PLAYER = 200;
+
+    private final Random random;
+
+    private int orcamentoPorTick = ORCAMENTO_PADRAO;
+    private int maxInimigos = MAX_INIMIGOS_PADRAO;
+    private int maxCoracoes = MAX_CORACOES_PADRAO;
+
+    // Spawns pedidos e ainda não atendidos
+    private int inimigosPendentes;
+    private int coracoesPendentes;
+
+    // Temporizadores dos spawns periódicos
+    private double enemySpawnTimer = 0;
+    private double temporizadorSpawnCoracao = 0;
+
+    // Última posição livre encontrada por sortearPosicao()
+    private double posicaoX, posicaoY;
+
+    // Caixa reaproveitada nos testes contra o mapa
+    private final AABB caixa = new AABB();
+
+    public SpawnDirector(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Avança os temporizadores e atende os spawns pendentes dentro do
+     * orçamento do tick e dos limites de população.
+     * @param world mundo onde as entidades são criadas
+     * @param delta duração do tick
+     */
+    public void atualizar(GameWorld world, double delta) {
+        // Spawns periódicos entram na fila de pendentes
+        enemySpawnTimer += delta;
+        if (enemySpawnTimer >= ENEMY_SPAWN_INTERVAL) {
+            enemySpawnTimer = 0;
+            inimigosPendentes++;
+        }
+        temporizadorSpawnCoracao += delta;
+        if (temporizadorSpawnCoracao >= HEART_SPAWN_INTERVAL) {
+            temporizadorSpawnCoracao = 0;
+            coracoesPendentes++;
+        }
+
+        // Pedidos acima do limite de população são descartados
+        inimigosPendentes = Math.min(inimigosPendentes, Math.max(0, maxInimigos - world.getInimigos().size()));
+        coracoesPendentes = Math.min(coracoesPendentes, Math.max(0, maxCoracoes - world.getCoracoes().size()));
+
+        Player player = world.getPlayer();
+        int orcamento = orcamentoPorTick;
+        while (orcamento > 0 && coracoesPendentes > 0) {
+            orcamento--;
+            if (!sortearPosicaoCoracao(world.getOfficeMap())) break;
+            world.adicionarCoracao(posicaoX, posicaoY);
+            coracoesPendentes--;
+        }
+        while (orcamento > 0 && inimigosPendentes > 0) {
+            orcamento--;
+            if (!sortearPosicaoInimigo(world.getOfficeMap(), player.x, player.y)) break;
+            world.adicionarInimigo(posicaoX, posicaoY);
+            inimigosPendentes--;
+        }
+    }
+
+    /**
+     * Pede uma onda de inimigos, que será criada ao longo dos próximos ticks.
+     */
+    public void solicitarInimigos(int quantidade) {
+        inimigosPendentes += Math.max(0, quantidade);
+    }
+
+    /**
+     * Pede novos corações, criados ao longo dos próximos ticks.
+     */
+    public void solicitarCoracoes(int quantidade) {
+        coracoesPendentes += Math.max(0, quantidade);
+    }
+
+    /**
+     * Sorteia uma posição livre para o centro de um inimigo, longe do player,
+     * dentro da área carregada do mapa (o mundo todo, se o mapa não é
+     * carregado por chunks). O resultado fica em {@link #getPosicaoX()} e
+     * {@link #getPosicaoY()}.
+     * @return false se nenhuma tentativa encontrou uma posição válida
+     */
+    public boolean sortearPosicaoInimigo(OfficeMap officeMap, double playerX, double playerY) {
+        double h = EnemyStore.HALF_SIZE;
+        double distanciaMinima2 = DISTANCIA_MINIMA_PLAYER * DISTANCIA_MINIMA_PLAYER;
+        AABB area = officeMap.getAreaCarregada();
+        for (int t = 0; t < TENTATIVAS_POR_SPAWN; t++) {
+            double x = area.minX + h + random.nextDouble() * (area.getWidth() - 2 * h);
+            double y = area.minY + h + random.nextDouble() * (area.getHeight() - 2 * h);
+            double dx = x - playerX;
+            double dy = y - playerY;
+            if (dx * dx + dy * dy < distanciaMinima2) continue;
+            if (officeMap.colide(caixa.setCentro(x, y, h, h))) continue;
+            posicaoX = x;
+            posicaoY = y;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sorteia uma posição livre para o canto superior esquerdo de um
+     * coração, dentro da área carregada do mapa.
+     * @return false se nenhuma tentativa encontrou uma posição válida
+     */
+    public boolean sortearPosicaoCoracao(OfficeMap officeMap) {
+        double tamanho = Coracao.TAMANHO;
+        AABB area = officeMap.getAreaCarregada();
+        for (int t = 0; t < TENTATIVAS_POR_SPAWN; t++) {
+            double x = area.minX + random.nextDouble() * (area.getWidth() - tamanho);
+            double y = area.minY + random.nextDouble() * (area.getHeight() - tamanho);
+            caixa.set(x, y, tamanho, tamanho);
+            if (officeMap.colide(caixa)) continue;
+            posicaoX = x;
+            posicaoY = y;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Procura, perto de um ponto escolhido, uma posição em que a caixa
+     * de um inimigo não colida com o mapa. Usado para os inimigos
+     * iniciais, que têm posições fixas.
+     * @return false se o ponto e as tentativas ao redor estão bloqueados
+     */
+    public boolean posicaoLivreProxima(OfficeMap officeMap, double x, double y) {
+        double h = EnemyStore.HALF_SIZE;
+        posicaoX = x;
+        posicaoY = y;
+        if (!officeMap.colide(caixa.setCentro(x, y, h, h))) {
+            return true;
+        }
+        // Afasta-se do ponto em raios crescentes
+        for (int t = 1; t <= TENTATIVAS_POR_SPAWN * 4; t++) {
+            double raio = t * 2 * h;
+            double angulo = random.nextDouble() * Math.PI * 2;
+            double px = Math.max(h, Math.min(officeMap.getLargura() - h, x + Math.cos(angulo) * raio));
+            double py = Math.max(h, Math.min(officeMap.getAltura() - h, y + Math.sin(angulo) * raio));
+            if (!officeMap.colide(caixa.setCentro(px, py, h, h))) {
+                posicaoX = px;
+                posicaoY = py;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double getPosicaoX() {
+        return posicaoX;
+    }
+
+    public double getPosicaoY() {
+        return posicaoY;
+    }
+
+    /**
+     * Define quantos spawns podem ser feitos por tick.
+     */
+    public void setOrcamentoPorTick(int orcamentoPorTick) {
+        this.orcamentoPorTick = Math.max(1, orcamentoPorTick);
+    }
+
+    public int getOrcamentoPorTick() {
+        return orcamentoPorTick;
+    }
+
+    public void setMaxInimigos(int maxInimigos) {
+        this.maxInimigos = maxInimigos;
+    }
+
+    public int getMaxInimigos() {
+        return maxInimigos;
+    }
+
+    public void setMaxCoracoes(int maxCoracoes) {
+        this.maxCoracoes = maxCoracoes;
+    }
+
+    public int getMaxCoracoes() {
+        return maxCoracoes;
+    }
+
+    public int getInimigosPendentes() {
+        return inimigosPendentes;
+    }
+}
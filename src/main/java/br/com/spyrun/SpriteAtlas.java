@@ -0,0 +1,281 @@
+package br.com.spyrun;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classe SpriteAtlas
+ * Reúne em uma única imagem (atlas) os sprites do player e dos inimigos
+ * em cada direção, o coração e a bala, já reduzidos ao tamanho em que
+ * são desenhados (multiplicado pela escala de renderização). Os pixels
+ * ficam em um array ARGB pré-multiplicado, pronto para ser copiado pelo
+ * {@link SpriteBatch} sem escala.
+ *
+ * Para cada linha de cada região são guardados os trechos não
+ * transparentes, de modo que a cópia pula os pixels vazios do sprite.
+ * Sprites que não puderem ser carregados são substituídos pelas mesmas
+ * formas simples usadas antes (círculo, retângulo).
+ *
+ * Como os sprites de origem são grandes, montar um atlas leva algum
+ * tempo; {@link #obter(double)} guarda um atlas por escala, que pode ser
+ * montado antes em uma thread de fundo (ver {@link AssetManager}).
+ */
+public class SpriteAtlas {
+
+    // Lado dos sprites de personagens e do coração, em pixels na escala 1
+    public static final int LADO_SPRITE = 32;
+
+    // Regiões do atlas: player e inimigo têm uma região por Player.Direction
+    public static final int PLAYER = 0;
+    public static final int INIMIGO = PLAYER + 4;
+    public static final int CORACAO = INIMIGO + 4;
+    public static final int BALA = CORACAO + 1;
+    private static final int REGIOES = BALA + 1;
+
+    // Cores das formas usadas quando um sprite não carrega
+    private static final Color COR_PLAYER_PADRAO = Color.DARKBLUE;
+    private static final Color COR_INIMIGO_PADRAO = Color.CRIMSON;
+    private static final Color COR_CORACAO_PADRAO = Color.RED;
+    private static final Color COR_BALA = Color.LIME;
+
+    // Atlas já montados, por escala
+    private static final Map<Double, SpriteAtlas> montados = new ConcurrentHashMap<>();
+
+    // Pixels do atlas (ARGB pré-multiplicado), linha a linha
+    final int largura;
+    final int altura;
+    final int[] pixels;
+
+    // Posição e tamanho de cada região no atlas
+    final int[] regiaoX = new int[REGIOES];
+    final int[] regiaoY = new int[REGIOES];
+    final int[] regiaoLargura = new int[REGIOES];
+    final int[] regiaoAltura = new int[REGIOES];
+
+    // Trechos não transparentes da linha l da região r, em
+    // trechos[r][l] como pares (início, fim) relativos à região
+    final int[][][] trechos = new int[REGIOES][][];
+
+    /**
+     * Retorna o atlas da escala informada, montando-o na primeira chamada.
+     * Pode ser chamado de qualquer thread, depois que os sprites do
+     * {@link SpriteCache} terminaram de carregar.
+     */
+    public static SpriteAtlas obter(double escala) {
+        return montados.computeIfAbsent(escala, SpriteAtlas::new);
+    }
+
+    /**
+     * Monta o atlas em tamanho real a partir do {@link SpriteCache}.
+     */
+    public SpriteAtlas() {
+        this(1);
+    }
+
+    /**
+     * Monta o atlas a partir do {@link SpriteCache}, com os sprites
+     * reduzidos pela escala de renderização.
+     * @param escala fator aplicado ao tamanho dos sprites (0 a 1)
+     */
+    public SpriteAtlas(double escala) {
+        int lado = Math.max(1, (int) Math.round(LADO_SPRITE * escala));
+        int diametroBala = Math.max(2, (int) Math.ceil(2 * BulletPool.RAIO * escala));
+        largura = (REGIOES - 1) * lado + diametroBala;
+        altura = lado;
+        pixels = new int[largura * altura];
+
+        for (int r = 0; r < REGIOES; r++) {
+            regiaoX[r] = r * lado;
+            regiaoY[r] = 0;
+            regiaoLargura[r] = r == BALA ? diametroBala : lado;
+            regiaoAltura[r] = r == BALA ? diametroBala : lado;
+        }
+
+        for (Player.Direction d : Player.Direction.values()) {
+            if (!copiarSprite(caminho("Player", d), PLAYER + d.ordinal())
+                    && !copiarSprite(caminho("Player", Player.Direction.DOWN), PLAYER + d.ordinal())) {
+                desenharCirculo(PLAYER + d.ordinal(), COR_PLAYER_PADRAO, 15 * escala);
+            }
+            if (!copiarSprite(caminho("Enemy", d), INIMIGO + d.ordinal())
+                    && !copiarSprite(caminho("Enemy", Player.Direction.DOWN), INIMIGO + d.ordinal())) {
+                int borda = (int) Math.round(escala);
+                desenharRetangulo(INIMIGO + d.ordinal(), COR_INIMIGO_PADRAO, borda, borda, lado - 2 * borda, lado - 2 * borda);
+            }
+        }
+        Image coracao = SpriteCache.get(Coracao.SPRITE, Coracao.TAMANHO, Coracao.TAMANHO);
+        if (coracao == null || !copiar(coracao, CORACAO)) {
+            desenharRetangulo(CORACAO, COR_CORACAO_PADRAO, 0, 0, lado, lado);
+        }
+        desenharCirculo(BALA, COR_BALA, BulletPool.RAIO * escala);
+
+        for (int r = 0; r < REGIOES; r++) {
+            calcularTrechos(r);
+        }
+    }
+
+    /**
+     * @return caminhos dos sprites em tamanho original lidos ao montar o
+     *         atlas (além deles, o coração em {@link Coracao#TAMANHO})
+     */
+    public static List<String> sprites() {
+        List<String> caminhos = new ArrayList<>();
+        for (Player.Direction d : Player.Direction.values()) {
+            caminhos.add(caminho("Player", d));
+            caminhos.add(caminho("Enemy", d));
+        }
+        return caminhos;
+    }
+
+    private static String caminho(String personagem, Player.Direction d) {
+        return "/sprites/" + personagem + "-" + d.name().toLowerCase() + ".png";
+    }
+
+    /**
+     * Converte uma cor em ARGB (como as do mapa) para ARGB pré-multiplicado.
+     */
+    static int argbPre(int argb) {
+        int a = argb >>> 24;
+        if (a == 255) {
+            return argb;
+        }
+        return (a << 24)
+                | (((argb >> 16) & 0xff) * a + 127) / 255 << 16
+                | (((argb >> 8) & 0xff) * a + 127) / 255 << 8
+                | ((argb & 0xff) * a + 127) / 255;
+    }
+
+    /**
+     * Converte uma cor para ARGB pré-multiplicado.
+     */
+    static int argbPre(Color cor) {
+        double a = cor.getOpacity();
+        return ((int) Math.round(a * 255) << 24)
+                | ((int) Math.round(cor.getRed() * a * 255) << 16)
+                | ((int) Math.round(cor.getGreen() * a * 255) << 8)
+                | (int) Math.round(cor.getBlue() * a * 255);
+    }
+
+    private boolean copiarSprite(String path, int regiao) {
+        Image imagem = SpriteCache.get(path);
+        return imagem != null && copiar(imagem, regiao);
+    }
+
+    /**
+     * Reduz a imagem para o tamanho da região pela média das áreas
+     * de origem (em ARGB pré-multiplicado) e grava no atlas. Assim
+     * como o drawImage anterior, a imagem é esticada para o quadrado.
+     * @return false se os pixels da imagem não puderem ser lidos
+     */
+    private boolean copiar(Image imagem, int regiao) {
+        if (imagem.isError() || imagem.getPixelReader() == null) {
+            return false;
+        }
+        int w = (int) imagem.getWidth();
+        int h = (int) imagem.getHeight();
+        if (w <= 0 || h <= 0) {
+            return false;
+        }
+        int[] origem = new int[w * h];
+        imagem.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), origem, 0, w);
+
+        int rw = regiaoLargura[regiao];
+        int rh = regiaoAltura[regiao];
+        for (int ty = 0; ty < rh; ty++) {
+            int y0 = ty * h / rh;
+            int y1 = Math.max(y0 + 1, (ty + 1) * h / rh);
+            for (int tx = 0; tx < rw; tx++) {
+                int x0 = tx * w / rw;
+                int x1 = Math.max(x0 + 1, (tx + 1) * w / rw);
+                long a = 0, r = 0, g = 0, b = 0;
+                for (int sy = y0; sy < y1; sy++) {
+                    int linha = sy * w;
+                    for (int sx = x0; sx < x1; sx++) {
+                        int p = origem[linha + sx];
+                        a += p >>> 24;
+                        r += (p >> 16) & 0xff;
+                        g += (p >> 8) & 0xff;
+                        b += p & 0xff;
+                    }
+                }
+                int n = (y1 - y0) * (x1 - x0);
+                pixels[(regiaoY[regiao] + ty) * largura + regiaoX[regiao] + tx] =
+                        (int) ((a + n / 2) / n) << 24 | (int) ((r + n / 2) / n) << 16
+                                | (int) ((g + n / 2) / n) << 8 | (int) ((b + n / 2) / n);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Desenha um círculo centrado na região, com borda suavizada
+     * (cobertura estimada com 4x4 amostras por pixel).
+     */
+    private void desenharCirculo(int regiao, Color cor, double raio) {
+        double cx = regiaoLargura[regiao] / 2.0;
+        double cy = regiaoAltura[regiao] / 2.0;
+        for (int y = 0; y < regiaoAltura[regiao]; y++) {
+            for (int x = 0; x < regiaoLargura[regiao]; x++) {
+                int dentro = 0;
+                for (int s = 0; s < 16; s++) {
+                    double dx = x + (s % 4 + 0.5) / 4 - cx;
+                    double dy = y + (s / 4 + 0.5) / 4 - cy;
+                    if (dx * dx + dy * dy <= raio * raio) dentro++;
+                }
+                if (dentro > 0) {
+                    pixels[(regiaoY[regiao] + y) * largura + regiaoX[regiao] + x] =
+                            argbPre(Color.color(cor.getRed(), cor.getGreen(), cor.getBlue(), dentro / 16.0));
+                }
+            }
+        }
+    }
+
+    private void desenharRetangulo(int regiao, Color cor, int x, int y, int w, int h) {
+        int argb = argbPre(cor);
+        for (int ly = y; ly < y + h; ly++) {
+            int inicio = (regiaoY[regiao] + ly) * largura + regiaoX[regiao];
+            for (int lx = x; lx < x + w; lx++) {
+                pixels[inicio + lx] = argb;
+            }
+        }
+    }
+
+    /**
+     * Guarda, para cada linha da região, os trechos com alfa maior que zero.
+     */
+    private void calcularTrechos(int regiao) {
+        int rw = regiaoLargura[regiao];
+        int rh = regiaoAltura[regiao];
+        trechos[regiao] = new int[rh][];
+        int[] temp = new int[rw + 1];
+        for (int y = 0; y < rh; y++) {
+            int inicioLinha = (regiaoY[regiao] + y) * largura + regiaoX[regiao];
+            int n = 0;
+            int x = 0;
+            while (x < rw) {
+                while (x < rw && pixels[inicioLinha + x] >>> 24 == 0) x++;
+                if (x == rw) break;
+                int inicio = x;
+                while (x < rw && pixels[inicioLinha + x] >>> 24 != 0) x++;
+                temp[n++] = inicio;
+                temp[n++] = x;
+            }
+            int[] linha = new int[n];
+            System.arraycopy(temp, 0, linha, 0, n);
+            trechos[regiao][y] = linha;
+        }
+    }
+
+    public int getLargura(int regiao) {
+        return regiaoLargura[regiao];
+    }
+
+    public int getAltura(int regiao) {
+        return regiaoAltura[regiao];
+    }
+}
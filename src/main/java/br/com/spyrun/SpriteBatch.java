@@ -0,0 +1,336 @@
+package br.com.spyrun;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.util.Callback;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Classe SpriteBatch
+ * Camada das entidades (sprites, barras de vida e balas) desenhada em
+ * software. Durante o frame os comandos são apenas registrados em
+ * arrays; em {@link #desenharEm(GraphicsContext)} eles são rasterizados
+ * de uma vez em um {@link PixelBuffer}, copiando pixels do
+ * {@link SpriteAtlas} sem escala, e a camada inteira vai para o canvas
+ * com um único drawImage. Assim o custo por entidade é uma cópia de
+ * 32x32 pixels, em vez de um drawImage com escala e trocas de cor.
+ *
+ * Só a região desenhada no frame anterior é limpa, e só a união dela
+ * com a região do frame atual é enviada para a textura.
+ *
+ * Os comandos recebem coordenadas da tela em tamanho real; com escala
+ * de renderização menor que 1 a camada (e o atlas) são menores e as
+ * coordenadas são convertidas ao registrar. Nessa escala o chão também
+ * entra na camada, como blocos de pixels do {@link MapLayerCache}, e o
+ * frame inteiro é ampliado para a tela com um único drawImage.
+ *
+ * A rasterização é entregue à textura por um {@link Envio}: no jogo,
+ * {@link #ENVIO_TELA} usa {@link PixelBuffer#updateBuffer}, que só pode
+ * ser chamado na thread do JavaFX; os benchmarks, que desenham fora
+ * dela, usam {@link #ENVIO_DIRETO}.
+ */
+public class SpriteBatch {
+
+    /**
+     * Executa a rasterização da camada e informa à imagem a região alterada.
+     */
+    public interface Envio {
+        void enviar(PixelBuffer<IntBuffer> buffer, Callback<PixelBuffer<IntBuffer>, Rectangle2D> rasterizacao);
+    }
+
+    // Atualiza a textura pela thread do JavaFX (camada exibida em uma cena)
+    public static final Envio ENVIO_TELA = PixelBuffer::updateBuffer;
+
+    // Só rasteriza os pixels, sem avisar a textura (camada fora de uma cena)
+    public static final Envio ENVIO_DIRETO = (buffer, rasterizacao) -> rasterizacao.call(buffer);
+
+    // Tipos de comando
+    private static final int SPRITE = 0;
+    private static final int RETANGULO = 1;
+    private static final int BLOCO = 2;
+
+    private final SpriteAtlas atlas;
+    private final int largura;
+    private final int altura;
+    private final double escala;
+    private final Envio envio;
+
+    // Pixels da camada (ARGB pré-multiplicado), compartilhados com a imagem
+    private final int[] pixels;
+    private final PixelBuffer<IntBuffer> buffer;
+    private final WritableImage imagem;
+
+    // Comandos registrados no frame: tipo, posição, tamanho e região do atlas ou cor
+    private int comandos;
+    private int[] tipo = new int[256];
+    private int[] cmdX = new int[256];
+    private int[] cmdY = new int[256];
+    private int[] cmdLargura = new int[256];
+    private int[] cmdAltura = new int[256];
+    private int[] cmdValor = new int[256];
+    private int[][] cmdBloco = new int[256][];
+
+    // Cor opaca que preenche toda a camada antes dos comandos do frame
+    // (usada quando o chão é desenhado na camada)
+    private boolean comFundo;
+    private int corFundo;
+
+    // Retângulo desenhado no frame anterior e no atual (vazio se min > max)
+    private int anteriorMinX = Integer.MAX_VALUE, anteriorMinY = Integer.MAX_VALUE;
+    private int anteriorMaxX = -1, anteriorMaxY = -1;
+    private int atualMinX, atualMinY, atualMaxX, atualMaxY;
+
+    public SpriteBatch(SpriteAtlas atlas, int largura, int altura) {
+        this(atlas, largura, altura, 1);
+    }
+
+    /**
+     * @param atlas atlas montado com a mesma escala
+     * @param largura largura da camada, em pixels (já na escala)
+     * @param altura altura da camada, em pixels (já na escala)
+     * @param escala fator entre as coordenadas recebidas e os pixels da camada
+     */
+    public SpriteBatch(SpriteAtlas atlas, int largura, int altura, double escala) {
+        this(atlas, largura, altura, escala, ENVIO_TELA);
+    }
+
+    /**
+     * @param envio como a rasterização chega à textura da camada
+     */
+    public SpriteBatch(SpriteAtlas atlas, int largura, int altura, double escala, Envio envio) {
+        this.atlas = atlas;
+        this.largura = largura;
+        this.altura = altura;
+        this.escala = escala;
+        this.envio = envio;
+        pixels = new int[largura * altura];
+        buffer = new PixelBuffer<>(largura, altura, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+        imagem = new WritableImage(buffer);
+    }
+
+    /**
+     * Registra uma região do atlas centrada no ponto da tela.
+     */
+    public void sprite(int regiao, double centroX, double centroY) {
+        int w = atlas.regiaoLargura[regiao];
+        int h = atlas.regiaoAltura[regiao];
+        registrar(SPRITE, (int) Math.floor(centroX * escala - w / 2.0), (int) Math.floor(centroY * escala - h / 2.0),
+                w, h, regiao);
+    }
+
+    /**
+     * Registra um retângulo preenchido com a cor ARGB pré-multiplicada
+     * (ver {@link SpriteAtlas#argbPre}).
+     */
+    public void retangulo(double x, double y, double w, double h, int argbPre) {
+        int x0 = (int) Math.round(x * escala);
+        int y0 = (int) Math.round(y * escala);
+        int x1 = (int) Math.round((x + w) * escala);
+        int y1 = (int) Math.round((y + h) * escala);
+        if (x1 > x0 && y1 > y0) {
+            registrar(RETANGULO, x0, y0, x1 - x0, y1 - y0, argbPre);
+        }
+    }
+
+    /**
+     * Registra um bloco quadrado de pixels opacos (ARGB pré-multiplicado),
+     * na posição informada já em pixels da camada.
+     * @param pixels pixels do bloco, linha a linha
+     * @param lado lado do bloco, em pixels
+     */
+    public void bloco(int[] pixels, int lado, int x, int y) {
+        registrar(BLOCO, x, y, lado, lado, 0, pixels);
+    }
+
+    /**
+     * Preenche toda a camada com a cor antes dos comandos do próximo frame.
+     * @param argbPre cor opaca em ARGB pré-multiplicado
+     */
+    public void fundo(int argbPre) {
+        comFundo = true;
+        corFundo = argbPre;
+    }
+
+    private void registrar(int t, int x, int y, int w, int h, int valor) {
+        registrar(t, x, y, w, h, valor, null);
+    }
+
+    private void registrar(int t, int x, int y, int w, int h, int valor, int[] bloco) {
+        // Descarta o que está totalmente fora da camada
+        if (x >= largura || y >= altura || x + w <= 0 || y + h <= 0) {
+            return;
+        }
+        if (comandos == tipo.length) {
+            int n = comandos * 2;
+            tipo = Arrays.copyOf(tipo, n);
+            cmdX = Arrays.copyOf(cmdX, n);
+            cmdY = Arrays.copyOf(cmdY, n);
+            cmdLargura = Arrays.copyOf(cmdLargura, n);
+            cmdAltura = Arrays.copyOf(cmdAltura, n);
+            cmdValor = Arrays.copyOf(cmdValor, n);
+            cmdBloco = Arrays.copyOf(cmdBloco, n);
+        }
+        tipo[comandos] = t;
+        cmdX[comandos] = x;
+        cmdY[comandos] = y;
+        cmdLargura[comandos] = w;
+        cmdAltura[comandos] = h;
+        cmdValor[comandos] = valor;
+        cmdBloco[comandos] = bloco;
+        comandos++;
+    }
+
+    /**
+     * Rasteriza os comandos registrados, pelo {@link Envio} da camada, e
+     * desenha a camada no contexto.
+     */
+    public void desenharEm(GraphicsContext g) {
+        atualizar();
+        g.drawImage(imagem, 0, 0);
+    }
+
+    /**
+     * Rasteriza os comandos e desenha a camada esticada para o tamanho
+     * informado, sem suavização (usado com escala menor que 1).
+     */
+    public void desenharEm(GraphicsContext g, double largura, double altura) {
+        atualizar();
+        g.setImageSmoothing(false);
+        g.drawImage(imagem, 0, 0, largura, altura);
+    }
+
+    private void atualizar() {
+        envio.enviar(buffer, b -> rasterizar());
+    }
+
+    /**
+     * @return região alterada (vazia se nada mudou)
+     */
+    private Rectangle2D rasterizar() {
+        boolean fundoNoFrame = comFundo;
+        comFundo = false;
+        if (fundoNoFrame) {
+            // O fundo cobre a camada inteira
+            Arrays.fill(pixels, corFundo);
+        } else if (anteriorMaxX >= anteriorMinX && anteriorMaxY >= anteriorMinY) {
+            // Limpa o que foi desenhado no frame anterior
+            for (int y = anteriorMinY; y <= anteriorMaxY; y++) {
+                Arrays.fill(pixels, y * largura + anteriorMinX, y * largura + anteriorMaxX + 1, 0);
+            }
+        }
+
+        atualMinX = Integer.MAX_VALUE;
+        atualMinY = Integer.MAX_VALUE;
+        atualMaxX = -1;
+        atualMaxY = -1;
+        for (int c = 0; c < comandos; c++) {
+            int x0 = Math.max(0, cmdX[c]);
+            int y0 = Math.max(0, cmdY[c]);
+            int x1 = Math.min(largura, cmdX[c] + cmdLargura[c]);
+            int y1 = Math.min(altura, cmdY[c] + cmdAltura[c]);
+            if (tipo[c] == SPRITE) {
+                copiarSprite(cmdValor[c], cmdX[c], cmdY[c], x0, y0, x1, y1);
+            } else if (tipo[c] == BLOCO) {
+                copiarBloco(cmdBloco[c], cmdLargura[c], cmdX[c], cmdY[c], x0, y0, x1, y1);
+                cmdBloco[c] = null;
+            } else {
+                preencher(cmdValor[c], x0, y0, x1, y1);
+            }
+            atualMinX = Math.min(atualMinX, x0);
+            atualMinY = Math.min(atualMinY, y0);
+            atualMaxX = Math.max(atualMaxX, x1 - 1);
+            atualMaxY = Math.max(atualMaxY, y1 - 1);
+        }
+        comandos = 0;
+        if (fundoNoFrame) {
+            // A camada inteira mudou e precisa ser limpa no próximo frame sem fundo
+            atualMinX = 0;
+            atualMinY = 0;
+            atualMaxX = largura - 1;
+            atualMaxY = altura - 1;
+        }
+
+        // Região a enviar: união do frame anterior (limpo) com o atual
+        int minX = Math.min(anteriorMinX, atualMinX);
+        int minY = Math.min(anteriorMinY, atualMinY);
+        int maxX = Math.max(anteriorMaxX, atualMaxX);
+        int maxY = Math.max(anteriorMaxY, atualMaxY);
+        anteriorMinX = atualMinX;
+        anteriorMinY = atualMinY;
+        anteriorMaxX = atualMaxX;
+        anteriorMaxY = atualMaxY;
+        if (maxX < minX) {
+            return Rectangle2D.EMPTY;
+        }
+        return new Rectangle2D(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    /**
+     * Copia os trechos não transparentes da região do atlas, compondo
+     * por cima do que já está na camada (pixels opacos são copiados).
+     */
+    private void copiarSprite(int regiao, int destinoX, int destinoY, int x0, int y0, int x1, int y1) {
+        int[] origem = atlas.pixels;
+        int larguraAtlas = atlas.largura;
+        int[][] trechosRegiao = atlas.trechos[regiao];
+        int origemX = atlas.regiaoX[regiao];
+        int origemY = atlas.regiaoY[regiao];
+        for (int y = y0; y < y1; y++) {
+            int ly = y - destinoY;
+            int[] trechosLinha = trechosRegiao[ly];
+            int linhaOrigem = (origemY + ly) * larguraAtlas + origemX;
+            int linhaDestino = y * largura + destinoX;
+            for (int t = 0; t < trechosLinha.length; t += 2) {
+                int inicio = Math.max(trechosLinha[t], x0 - destinoX);
+                int fim = Math.min(trechosLinha[t + 1], x1 - destinoX);
+                for (int lx = inicio; lx < fim; lx++) {
+                    int src = origem[linhaOrigem + lx];
+                    int a = src >>> 24;
+                    if (a == 255) {
+                        pixels[linhaDestino + lx] = src;
+                    } else {
+                        pixels[linhaDestino + lx] = compor(src, a, pixels[linhaDestino + lx]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia as linhas do bloco (opaco) que caem dentro da camada.
+     */
+    private void copiarBloco(int[] bloco, int lado, int destinoX, int destinoY, int x0, int y0, int x1, int y1) {
+        for (int y = y0; y < y1; y++) {
+            System.arraycopy(bloco, (y - destinoY) * lado + (x0 - destinoX), pixels, y * largura + x0, x1 - x0);
+        }
+    }
+
+    private void preencher(int cor, int x0, int y0, int x1, int y1) {
+        int a = cor >>> 24;
+        for (int y = y0; y < y1; y++) {
+            int linha = y * largura;
+            if (a == 255) {
+                Arrays.fill(pixels, linha + x0, linha + x1, cor);
+            } else {
+                for (int x = x0; x < x1; x++) {
+                    pixels[linha + x] = compor(cor, a, pixels[linha + x]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Composição "source over" em ARGB pré-multiplicado.
+     */
+    static int compor(int src, int alfa, int dst) {
+        int resto = 255 - alfa;
+        int rb = ((dst & 0x00ff00ff) * resto + 0x00800080) >>> 8 & 0x00ff00ff;
+        int ag = ((dst >>> 8) & 0x00ff00ff) * resto + 0x00800080 & 0xff00ff00;
+        return src + (rb | ag);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.spyrun;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classe SpriteCache
+ * Cache central de sprites compartilhado por Player, Enemy e Coracao.
+ * Cada imagem é decodificada uma única vez e depois reaproveitada
+ * por todas as entidades, que guardam apenas referências.
+ *
+ * As imagens podem ser decodificadas na hora ({@link #get(String)}) ou
+ * em segundo plano pelo próprio Image ({@link #carregarEmSegundoPlano}),
+ * como faz o {@link AssetManager} na inicialização. Formatos que o
+ * JavaFX não decodifica (ex.: SVG) são tratados como não carregados,
+ * para que quem usa a imagem desenhe o seu substituto.
+ */
+public final class SpriteCache {
+
+    // Extensões que o Image do JavaFX consegue decodificar
+    private static final String[] FORMATOS_SUPORTADOS = {".png", ".gif", ".jpg", ".jpeg", ".bmp"};
+
+    // Imagens já decodificadas (vazias quando o carregamento falhou)
+    private static final Map<String, Optional<Image>> cache = new ConcurrentHashMap<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Retorna a imagem do caminho informado, decodificando-a na primeira chamada.
+     * @param path caminho do recurso no classpath
+     * @return a imagem, ou null se não puder ser carregada
+     */
+    public static Image get(String path) {
+        return cache.computeIfAbsent(path, p -> carregar(p, 0, 0)).orElse(null);
+    }
+
+    /**
+     * Retorna a imagem redimensionada para o tamanho informado
+     * (usado para imagens vetoriais, como o coração).
+     * @param path caminho do recurso no classpath
+     * @param width largura desejada
+     * @param height altura desejada
+     * @return a imagem, ou null se não puder ser carregada
+     */
+    public static Image get(String path, double width, double height) {
+        return cache.computeIfAbsent(chave(path, width, height), c -> carregar(path, width, height)).orElse(null);
+    }
+
+    /**
+     * Inicia a decodificação da imagem em segundo plano (background
+     * loading do Image) e já a coloca no cache: quem pedir a imagem antes
+     * do fim recebe a mesma instância, ainda carregando. Deve ser chamado
+     * na thread do JavaFX, que é onde o progresso da imagem é atualizado.
+     * @param path caminho do recurso no classpath
+     * @param width largura desejada (0 = tamanho original)
+     * @param height altura desejada (0 = tamanho original)
+     * @return a imagem em carregamento, ou null se o recurso não existe ou
+     *         o formato não é suportado
+     */
+    public static Image carregarEmSegundoPlano(String path, double width, double height) {
+        return cache.computeIfAbsent(chave(path, width, height), c -> {
+            URL url = SpriteCache.class.getResource(path);
+            if (url == null || !suportado(path)) {
+                return falha(path);
+            }
+            return Optional.of(new Image(url.toExternalForm(), width, height, width > 0, true, true));
+        }).orElse(null);
+    }
+
+    /**
+     * Remove do cache uma imagem carregada em segundo plano que terminou com
+     * erro, para que {@link #get} passe a devolver null para ela.
+     */
+    static void descartarComErro(String path, double width, double height) {
+        String chave = chave(path, width, height);
+        Optional<Image> atual = cache.get(chave);
+        if (atual != null && atual.isPresent() && atual.get().isError()) {
+            System.err.println("Não foi possível carregar o sprite " + path);
+            cache.put(chave, Optional.empty());
+        }
+    }
+
+    private static String chave(String path, double width, double height) {
+        return width > 0 && height > 0 ? path + "@" + width + "x" + height : path;
+    }
+
+    private static boolean suportado(String path) {
+        String nome = path.toLowerCase(Locale.ROOT);
+        for (String formato : FORMATOS_SUPORTADOS) {
+            if (nome.endsWith(formato)) return true;
+        }
+        return false;
+    }
+
+    private static Optional<Image> falha(String path) {
+        System.err.println("Não foi possível carregar o sprite " + path);
+        return Optional.empty();
+    }
+
+    private static Optional<Image> carregar(String path, double width, double height) {
+        if (!suportado(path)) {
+            return falha(path);
+        }
+        try {
+            Image imagem = (width > 0 && height > 0)
+                    ? new Image(SpriteCache.class.getResourceAsStream(path), width, height, true, true)
+                    : new Image(SpriteCache.class.getResourceAsStream(path));
+            return imagem.isError() ? falha(path) : Optional.of(imagem);
+        } catch (Exception e) {
+            return falha(path);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+
+/**
+ * Classe TickInput
+ * Entrada completa do jogador em um tick da simulação: teclas de
+ * direção pressionadas, direção do sprite e disparos (posição do mouse
+ * na tela). É a unidade gravada e reproduzida pelos replays.
+ */
+public class TickInput {
+
+    // Teclas de direção pressionadas neste tick
+    public boolean up, down, left, right;
+
+    // Direção do sprite do player (última tecla pressionada)
+    public Player.Direction direcao = Player.Direction.DOWN;
+
+    // Disparos deste tick, em coordenadas da tela
+    public int tiros;
+    public float[] tiroX = new float[4];
+    public float[] tiroY = new float[4];
+
+    /**
+     * Adiciona um disparo na posição (x, y) da tela.
+     */
+    public void adicionarTiro(double x, double y) {
+        if (tiros == tiroX.length) {
+            tiroX = Arrays.copyOf(tiroX, tiros * 2);
+            tiroY = Arrays.copyOf(tiroY, tiros * 2);
+        }
+        tiroX[tiros] = (float) x;
+        tiroY[tiros] = (float) y;
+        tiros++;
+    }
+
+    /**
+     * Aplica a entrada ao mundo antes do tick: disparos (convertidos para
+     * o mundo com a câmera atual), direção do sprite e movimento.
+     */
+    public void aplicar(GameWorld world) {
+        for (int i = 0; i < tiros; i++) {
+            world.atirarPlayer(tiroX[i] + world.getCameraX(), tiroY[i] + world.getCameraY());
+        }
+        world.getPlayer().direction = direcao;
+        world.setMovimento(up, down, left, right);
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.spyrun;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe WorldSnapshot
+ * Cópia do estado do {@link GameWorld} necessário para desenhar um
+ * frame: player, inimigos, balas e corações próximos da câmera, em
+ * arrays primitivos. É preenchida pela thread da simulação e lida
+ * pela thread do JavaFX, sem que as duas compartilhem objetos mutáveis
+ * (a troca entre elas é feita pelo {@link SnapshotBuffer}).
+ */
+public class WorldSnapshot {
+
+    // Margem em volta da câmera copiada para o snapshot, suficiente para
+    // sprites (32px), barras de vida e a interpolação da câmera
+    public static final double MARGEM = 64;
+
+    // Instante (System.nanoTime) em que o tick foi concluído
+    public long tempoTickNanos;
+
+    // Mapa (a thread do JavaFX só desenha; os chunks são carregados pela simulação)
+    public OfficeMap officeMap;
+
+    // Estado geral
+    public boolean gameOver;
+    public double cameraX, cameraY;
+    public int inimigosTotal;
+    public int balasAtivas;
+
+    // Player
+    public double playerX, playerY, playerPrevX, playerPrevY;
+    public Player.Direction playerDirection = Player.Direction.DOWN;
+    public int playerHealth;
+
+    // Inimigos próximos da câmera
+    public int inimigos;
+    public double[] inimigoX = new double[64];
+    public double[] inimigoY = new double[64];
+    public double[] inimigoPrevX = new double[64];
+    public double[] inimigoPrevY = new double[64];
+    public double[] inimigoVida = new double[64];
+    public Player.Direction[] inimigoDirecao = new Player.Direction[64];
+
+    // Balas próximas da câmera
+    public int balas;
+    public double[] balaX = new double[256];
+    public double[] balaY = new double[256];
+    public double[] balaPrevX = new double[256];
+    public double[] balaPrevY = new double[256];
+
+    // Corações próximos da câmera (objetos imutáveis, podem ser compartilhados)
+    public int coracoes;
+    public Coracao[] coracao = new Coracao[16];
+
+    // Área copiada, em coordenadas do mundo
+    private final AABB area = new AABB();
+
+    /**
+     * Copia do mundo o estado visível ao redor da câmera atual.
+     * Deve ser chamado pela thread que executa a simulação.
+     */
+    public void capturar(GameWorld world, double viewWidth, double viewHeight) {
+        tempoTickNanos = System.nanoTime();
+        officeMap = world.getOfficeMap();
+        gameOver = world.isGameOver();
+        cameraX = world.getCameraX();
+        cameraY = world.getCameraY();
+        EnemyStore enemies = world.getInimigos();
+        inimigosTotal = enemies.size();
+        balasAtivas = world.getBalasAtivas();
+
+        Player player = world.getPlayer();
+        playerX = player.x;
+        playerY = player.y;
+        playerPrevX = player.prevX;
+        playerPrevY = player.prevY;
+        playerDirection = player.direction;
+        playerHealth = player.health;
+
+        area.set(cameraX - MARGEM, cameraY - MARGEM, viewWidth + 2 * MARGEM, viewHeight + 2 * MARGEM);
+
+        // Inimigos, pela grade espacial do mundo
+        int encontrados = world.consultarInimigos(area);
+        garantirInimigos(encontrados);
+        inimigos = 0;
+        for (int k = 0; k < encontrados; k++) {
+            int e = world.getIndiceConsultado(k);
+            if (!enemies.alive[e]) continue;
+            int i = inimigos++;
+            inimigoX[i] = enemies.x[e];
+            inimigoY[i] = enemies.y[e];
+            inimigoPrevX[i] = enemies.prevX[e];
+            inimigoPrevY[i] = enemies.prevY[e];
+            inimigoVida[i] = enemies.health[e];
+            inimigoDirecao[i] = enemies.getDirection(e);
+        }
+
+        // Balas
+        BulletPool bullets = world.getBullets();
+        balas = 0;
+        for (int b = 0; b < bullets.size(); b++) {
+            if (!bullets.alive[b] || !area.contains(bullets.x[b], bullets.y[b])) continue;
+            if (balas == balaX.length) {
+                crescerBalas();
+            }
+            int i = balas++;
+            balaX[i] = bullets.x[b];
+            balaY[i] = bullets.y[b];
+            balaPrevX[i] = bullets.prevX[b];
+            balaPrevY[i] = bullets.prevY[b];
+        }
+
+        // Corações
+        List<Coracao> lista = world.getCoracoes();
+        coracoes = 0;
+        for (Coracao c : lista) {
+            if (!c.getBounds().intersects(area)) continue;
+            if (coracoes == coracao.length) {
+                coracao = Arrays.copyOf(coracao, coracao.length * 2);
+            }
+            coracao[coracoes++] = c;
+        }
+        // Libera referências antigas além do fim
+        Arrays.fill(coracao, coracoes, coracao.length, null);
+    }
+
+    private void garantirInimigos(int quantidade) {
+        if (inimigoX.length < quantidade) {
+            int n = Math.max(quantidade, inimigoX.length * 2);
+            inimigoX = Arrays.copyOf(inimigoX, n);
+            inimigoY = Arrays.copyOf(inimigoY, n);
+            inimigoPrevX = Arrays.copyOf(inimigoPrevX, n);
+            inimigoPrevY = Arrays.copyOf(inimigoPrevY, n);
+            inimigoVida = Arrays.copyOf(inimigoVida, n);
+            inimigoDirecao = Arrays.copyOf(inimigoDirecao, n);
+        }
+    }
+
+    private void crescerBalas() {
+        int n = balaX.length * 2;
+        balaX = Arrays.copyOf(balaX, n);
+        balaY = Arrays.copyOf(balaY, n);
+        balaPrevX = Arrays.copyOf(balaPrevX, n);
+        balaPrevY = Arrays.copyOf(balaPrevY, n);
+    }
+}
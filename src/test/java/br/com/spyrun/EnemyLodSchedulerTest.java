@@ -0,0 +1,79 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe EnemyLodSchedulerTest
+ * Orçamento do LOD da IA: inimigos distantes adiados por falta de
+ * orçamento são os primeiros atendidos no tick seguinte, mesmo que
+ * mortos tenham sido removidos (e os índices deslocados) entre os ticks.
+ */
+class EnemyLodSchedulerTest {
+
+    private static final double DELTA = 1.0 / 60.0;
+    private static final AABB VISIVEL = new AABB(0, 0, 100, 100);
+
+    @Test
+    void adiadosContinuamPrimeirosDepoisDaRemocaoDeMortos() {
+        EnemyStore enemies = new EnemyStore(16);
+        for (int i = 0; i < 10; i++) {
+            // Longe da área visível e todos no mesmo balde
+            enemies.adicionar(5000 + i * 10, 5000);
+        }
+        EnemyLodScheduler agendador = new EnemyLodScheduler();
+        agendador.setOrcamento(3);
+
+        // No tick do balde só cabem os três primeiros; os demais ficam adiados
+        for (int tick = 1; tick <= EnemyLodScheduler.PERIODO_LONGE; tick++) {
+            agendador.planejar(enemies, DELTA, VISIVEL);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i < 3, enemies.deltaIA[i] > 0, "inimigo " + i);
+            assertEquals(i >= 3, enemies.adiadoIA[i], "inimigo " + i);
+        }
+
+        // Dois mortos antes do primeiro adiado: os índices dos vivos recuam duas posições
+        enemies.alive[0] = false;
+        enemies.alive[1] = false;
+        agendador.antesDeRemoverMortos(enemies);
+        enemies.removerMortos();
+        agendador.planejar(enemies, DELTA, VISIVEL);
+
+        // Os antigos 3, 4 e 5 (agora 1, 2 e 3) são os atendidos
+        assertEquals(0, enemies.deltaIA[0]);
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(enemies.deltaIA[i] > 0, "adiado " + i + " não foi atendido");
+            assertEquals(false, enemies.adiadoIA[i]);
+        }
+        for (int i = 4; i < enemies.size(); i++) {
+            assertEquals(0, enemies.deltaIA[i], "inimigo " + i + " passou na frente dos adiados");
+            assertTrue(enemies.adiadoIA[i]);
+        }
+    }
+
+    @Test
+    void cursorVoltaAoInicioQuandoTodosDepoisDeleMorrem() {
+        EnemyStore enemies = new EnemyStore(16);
+        for (int i = 0; i < 6; i++) {
+            enemies.adicionar(5000 + i * 10, 5000);
+        }
+        EnemyLodScheduler agendador = new EnemyLodScheduler();
+        agendador.setOrcamento(2);
+        for (int tick = 1; tick <= EnemyLodScheduler.PERIODO_LONGE; tick++) {
+            agendador.planejar(enemies, DELTA, VISIVEL);
+        }
+
+        for (int i = 2; i < 6; i++) {
+            enemies.alive[i] = false;
+        }
+        agendador.antesDeRemoverMortos(enemies);
+        enemies.removerMortos();
+        agendador.planejar(enemies, DELTA, VISIVEL);
+
+        assertEquals(2, enemies.size());
+        assertEquals(0, agendador.getAtualizadosLonge());
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe MapCompilerTest
+ * Compilação de mapas texto para o formato em chunks ({@link MapCompiler})
+ * e leitura de volta pelo {@link ChunkedMapFile} e pelo {@link MapStreamer}.
+ */
+class MapCompilerTest {
+
+    private static final Path ESCRITORIO = Paths.get("src/main/resources/mapas/escritorio.mapa");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void escritorioCompiladoTemOsMesmosObjetosDoTexto() throws IOException {
+        MapCompiler.Definicao definicao = MapCompiler.lerTexto(ESCRITORIO);
+        Path compilado = dir.resolve("escritorio.mapb");
+        MapCompiler.compilar(definicao, compilado);
+
+        ChunkedMapFile arquivo = new ChunkedMapFile(compilado);
+        assertEquals(definicao.largura, arquivo.getLargura());
+        assertEquals(definicao.altura, arquivo.getAltura());
+        assertEquals(definicao.ladoChunk, arquivo.getLadoChunk());
+        assertEquals(definicao.objetos.size(), arquivo.getTotalObjetos());
+
+        List<MapObject> lidos = carregarTudo(arquivo);
+        assertEquals(definicao.objetos.size(), lidos.size());
+        for (int i = 0; i < lidos.size(); i++) {
+            assertMesmoObjeto(definicao.objetos.get(i), lidos.get(i));
+        }
+
+        // O mapa carregado por chunks colide exatamente onde o escritório padrão colide
+        OfficeMap padrao = OfficeMap.criarEscritorioPadrao();
+        OfficeMap porChunks = OfficeMap.carregar(compilado);
+        porChunks.carregarAoRedor(new AABB(0, 0, definicao.largura, definicao.altura));
+        AABB caixa = new AABB();
+        for (int y = 0; y < definicao.altura; y += 20) {
+            for (int x = 0; x < definicao.largura; x += 20) {
+                caixa.setCentro(x, y, 8, 8);
+                assertEquals(padrao.colide(caixa), porChunks.colide(caixa), "caixa em " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    void objetoNaBordaEGravadoEmCadaChunkECarregadoUmaVez() throws IOException {
+        MapCompiler.Definicao definicao = new MapCompiler.Definicao();
+        definicao.largura = 400;
+        definicao.altura = 400;
+        definicao.ladoChunk = 100;
+        int cor = 0xFF0A141E;
+        definicao.objetos.add(new MapObject(90, 90, 120, 20, cor));   // chunks (0..2, 0..1)
+        definicao.objetos.add(new MapObject(250, 250, 20, 20, cor));  // só o chunk (2, 2)
+        definicao.objetos.add(new MapObject(100, 300, 10, 10, cor));  // começa na borda: chunk (1, 3)
+        Path compilado = dir.resolve("bordas.mapb");
+        MapCompiler.compilar(definicao, compilado);
+
+        ChunkedMapFile arquivo = new ChunkedMapFile(compilado);
+        for (int cy = 0; cy < 4; cy++) {
+            for (int cx = 0; cx < 4; cx++) {
+                boolean esperado = cx <= 2 && cy <= 1;
+                assertEquals(esperado, contem(arquivo, cx, cy, 0), "objeto 0 no chunk " + cx + ", " + cy);
+            }
+        }
+        assertTrue(contem(arquivo, 2, 2, 1));
+        assertTrue(contem(arquivo, 1, 3, 2));
+        assertFalse(contem(arquivo, 0, 3, 2));
+
+        // Carregando todos os chunks, cada objeto aparece uma vez, na ordem dos ids
+        List<MapObject> lidos = carregarTudo(arquivo);
+        assertEquals(3, lidos.size());
+        for (int i = 0; i < lidos.size(); i++) {
+            assertMesmoObjeto(definicao.objetos.get(i), lidos.get(i));
+        }
+    }
+
+    @Test
+    void paletaComMaisCoresQueUmShortComSinal() throws IOException {
+        MapCompiler.Definicao definicao = new MapCompiler.Definicao();
+        int cores = 40_000;
+        for (int i = 0; i < cores; i++) {
+            definicao.objetos.add(new MapObject(i % 1990, (i / 1990) * 10, 5, 5,
+                    0xFF000000 | i));
+        }
+        Path compilado = dir.resolve("cores.mapb");
+        MapCompiler.compilar(definicao, compilado);
+
+        List<MapObject> lidos = carregarTudo(new ChunkedMapFile(compilado));
+        assertEquals(cores, lidos.size());
+        for (int i = Short.MAX_VALUE - 2; i < cores; i += 997) {
+            assertEquals(definicao.objetos.get(i).color, lidos.get(i).color, "cor do objeto " + i);
+        }
+        assertEquals(definicao.objetos.get(cores - 1).color, lidos.get(cores - 1).color);
+    }
+
+    @Test
+    void corForaDaPaletaGeraErroDescritivo() throws IOException {
+        MapCompiler.Definicao definicao = new MapCompiler.Definicao();
+        definicao.objetos.add(new MapObject(10, 10, 5, 5, 0xFFFF0000));
+        Path compilado = dir.resolve("corrompido.mapb");
+        MapCompiler.compilar(definicao, compilado);
+
+        // Troca o índice da cor do primeiro registro (últimos 2 bytes dele) por 0xFFFF
+        byte[] bytes = Files.readAllBytes(compilado);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int cabecalho = 29 + buffer.getInt(25) * 4 + 4;
+        int registro = buffer.getInt(cabecalho);
+        buffer.putShort(registro + MapCompiler.TAMANHO_REGISTRO - 2, (short) 0xFFFF);
+        Files.write(compilado, bytes);
+
+        ChunkedMapFile arquivo = new ChunkedMapFile(compilado);
+        UncheckedIOException erro = assertThrows(UncheckedIOException.class,
+                () -> arquivo.lerChunk(0, 0, new int[1], new MapObject[1]));
+        assertTrue(erro.getCause().getMessage().contains("65535"), erro.getCause().getMessage());
+    }
+
+    @Test
+    void coresHexadecimaisViramArgb() {
+        assertEquals(0xFF8B4513, MapCompiler.lerCor("8B4513"));
+        assertEquals(0xFF8B4513, MapCompiler.lerCor("#8b4513"));
+        assertEquals(0xFF8B4513, MapCompiler.lerCor("0x8B4513"));
+        assertEquals(0xFFFF0000, MapCompiler.lerCor("F00"));
+        assertEquals(0x80102030, MapCompiler.lerCor("#10203080"));
+        assertThrows(IllegalArgumentException.class, () -> MapCompiler.lerCor("red"));
+        assertThrows(IllegalArgumentException.class, () -> MapCompiler.lerCor("12345"));
+        assertThrows(IllegalArgumentException.class, () -> MapCompiler.lerCor("+12345"));
+    }
+
+    @Test
+    void arquivoQueNaoEMapaCompiladoGeraIOException() throws IOException {
+        Path invalido = dir.resolve("invalido.mapb");
+        Files.write(invalido, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> new ChunkedMapFile(invalido));
+    }
+
+    private static List<MapObject> carregarTudo(ChunkedMapFile arquivo) {
+        MapStreamer streamer = new MapStreamer(arquivo);
+        streamer.atualizar(new AABB(0, 0, arquivo.getLargura(), arquivo.getAltura()));
+        assertEquals(arquivo.getColunas() * arquivo.getLinhas(), streamer.getChunksCarregados());
+        return streamer.getObjetos();
+    }
+
+    private static boolean contem(ChunkedMapFile arquivo, int cx, int cy, int id) {
+        int quantidade = arquivo.quantidade(cx, cy);
+        int[] ids = new int[quantidade];
+        arquivo.lerChunk(cx, cy, ids, new MapObject[quantidade]);
+        for (int lido : ids) {
+            if (lido == id) return true;
+        }
+        return false;
+    }
+
+    private static void assertMesmoObjeto(MapObject esperado, MapObject lido) {
+        assertEquals((float) esperado.x, (float) lido.x);
+        assertEquals((float) esperado.y, (float) lido.y);
+        assertEquals((float) esperado.width, (float) lido.width);
+        assertEquals((float) esperado.height, (float) lido.height);
+        assertEquals(esperado.color, lido.color);
+    }
+}
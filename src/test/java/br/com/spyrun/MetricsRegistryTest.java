@@ -0,0 +1,57 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe MetricsRegistryTest
+ * Histórico de consolidações do {@link MetricsRegistry}: limitado a
+ * {@link MetricsRegistry#MAX_LINHAS}, descartando as mais antigas, e
+ * exportado em ordem cronológica.
+ */
+class MetricsRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void historicoDescartaAsConsolidacoesMaisAntigas() throws IOException {
+        MetricsRegistry metricas = new MetricsRegistry();
+        MetricsRegistry.Serie serie = metricas.serie("tick", MetricsRegistry.Unidade.NANOS);
+        int extras = 25;
+        for (int i = 0; i < MetricsRegistry.MAX_LINHAS + extras; i++) {
+            serie.registrar(i);
+            metricas.consolidar();
+        }
+
+        Path csv = dir.resolve("metricas.csv");
+        metricas.exportarCsv(csv);
+        List<String> linhas = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(1 + MetricsRegistry.MAX_LINHAS, linhas.size());
+        // A primeira linha mantida tem como máximo a amostra registrada logo após as descartadas
+        assertEquals(String.format(Locale.ROOT, "%.1f", (double) extras), linhas.get(1).split(",")[6]);
+        double anterior = -1;
+        for (String linha : linhas.subList(1, linhas.size())) {
+            double tempo = Double.parseDouble(linha.split(",")[0]);
+            assertTrue(tempo >= anterior, "histórico fora de ordem: " + linha);
+            anterior = tempo;
+        }
+
+        Path json = dir.resolve("metricas.json");
+        metricas.exportarJson(json);
+        List<String> objetos = Files.readAllLines(json, StandardCharsets.UTF_8);
+        assertEquals(2 + MetricsRegistry.MAX_LINHAS, objetos.size());
+        assertTrue(objetos.get(objetos.size() - 2).endsWith("}}"));
+        assertTrue(objetos.get(objetos.size() - 3).endsWith("}},"));
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe ParallelEnemyUpdaterTest
+ * A atualização paralela dos inimigos, com os disparos juntados na
+ * ordem dos índices, chega ao mesmo estado que a atualização sequencial
+ * com a mesma semente (o cenário de carga do {@link HeadlessRunner}).
+ */
+class ParallelEnemyUpdaterTest {
+
+    private static final int TICKS = 900;
+    private static final int INIMIGOS = 2000;
+    private static final long SEMENTE = 7;
+
+    @Test
+    void paraleloESequencialChegamAoMesmoEstado() {
+        assertMesmoEstado(true);
+    }
+
+    @Test
+    void paraleloESequencialChegamAoMesmoEstadoSemLod() {
+        assertMesmoEstado(false);
+    }
+
+    private static void assertMesmoEstado(boolean lod) {
+        GameWorld sequencial = HeadlessRunner.criarMundo(INIMIGOS, SEMENTE, false, lod);
+        GameWorld paralelo = HeadlessRunner.criarMundo(INIMIGOS, SEMENTE, true, lod);
+        // Vários blocos de inimigos, para que os disparos venham de tarefas diferentes
+        assertTrue(paralelo.getInimigos().size() > 4 * ParallelEnemyUpdater.TAMANHO_BLOCO);
+
+        HeadlessRunner.simular(sequencial, TICKS, null);
+        HeadlessRunner.simular(paralelo, TICKS, null);
+
+        assertEquals(HeadlessRunner.assinatura(sequencial), HeadlessRunner.assinatura(paralelo));
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Classe ReplayTest
+ * Gravação e reprodução de partidas ({@link ReplayRecorder} e
+ * {@link ReplayReader}): a reprodução chega ao mesmo estado da partida
+ * gravada, e arquivos truncados ou corrompidos resultam em uma
+ * {@link IOException} descritiva.
+ */
+class ReplayTest {
+
+    private static final double HZ = 60.0;
+    private static final int TICKS = 900;
+
+    // Tamanho do cabeçalho da versão 2 com o mapa padrão ("")
+    private static final int CABECALHO = 4 + 1 + 8 + 8 + 4 + 4 + 2 + 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reproducaoChegaAoMesmoEstadoDaGravacao() throws IOException {
+        Path arquivo = dir.resolve("partida.rep");
+        GameWorld gravado = gravar(arquivo, 11, TICKS);
+
+        try (ReplayReader replay = new ReplayReader(arquivo)) {
+            assertEquals(11, replay.getSemente());
+            GameWorld reproduzido = new GameWorld(replay.carregarMapa(),
+                    replay.getViewWidth(), replay.getViewHeight(), new Random(replay.getSemente()));
+            TickInput entrada = new TickInput();
+            int ticks = 0;
+            while (replay.proximoTick(entrada)) {
+                entrada.aplicar(reproduzido);
+                reproduzido.atualizar(1.0 / replay.getHz());
+                ticks++;
+            }
+            assertEquals(TICKS, ticks);
+            assertEquals(HeadlessRunner.assinatura(gravado), HeadlessRunner.assinatura(reproduzido));
+        }
+
+        // Outra semente com as mesmas entradas leva a outro estado
+        assertNotEquals(HeadlessRunner.assinatura(gravado),
+                HeadlessRunner.assinatura(gravar(dir.resolve("outra.rep"), 12, TICKS)));
+    }
+
+    @Test
+    void arquivoTruncadoGeraIOException() throws IOException {
+        Path arquivo = dir.resolve("partida.rep");
+        gravar(arquivo, 3, 300);
+        byte[] completo = Files.readAllBytes(arquivo);
+
+        int truncadosNoMeio = 0;
+        Path parcial = dir.resolve("parcial.rep");
+        for (int tamanho = 0; tamanho < completo.length; tamanho++) {
+            Files.write(parcial, Arrays.copyOf(completo, tamanho));
+            if (tamanho < CABECALHO) {
+                IOException erro = assertThrows(IOException.class, () -> lerTudo(parcial),
+                        "cabeçalho com " + tamanho + " bytes");
+                assertTrue(erro.getMessage() != null && !erro.getMessage().isEmpty());
+            } else if (lerAteFalhar(parcial) != null) {
+                truncadosNoMeio++;
+            }
+        }
+        // Cortes no meio de um registro (ex.: entre as coordenadas de um disparo) são detectados
+        assertTrue(truncadosNoMeio > 0);
+    }
+
+    @Test
+    void arquivoCorrompidoGeraIOException() throws IOException {
+        Path arquivo = dir.resolve("partida.rep");
+        gravar(arquivo, 5, 300);
+        byte[] original = Files.readAllBytes(arquivo);
+
+        Random random = new Random(1);
+        Path corrompido = dir.resolve("corrompido.rep");
+        for (int caso = 0; caso < 300; caso++) {
+            byte[] bytes = original.clone();
+            int posicao = CABECALHO + random.nextInt(bytes.length - CABECALHO);
+            bytes[posicao] = (byte) random.nextInt(256);
+            Files.write(corrompido, bytes);
+            lerAteFalhar(corrompido);
+        }
+
+        // Cabeçalho com outra marca ou versão
+        byte[] bytes = original.clone();
+        bytes[0] = 'X';
+        Files.write(corrompido, bytes);
+        assertThrows(IOException.class, () -> new ReplayReader(corrompido).close());
+        bytes = original.clone();
+        bytes[4] = 99;
+        Files.write(corrompido, bytes);
+        assertThrows(IOException.class, () -> new ReplayReader(corrompido).close());
+    }
+
+    /**
+     * Joga uma partida com entradas sorteadas (sempre as mesmas), gravando-a.
+     * @return o mundo no fim da partida
+     */
+    private static GameWorld gravar(Path arquivo, long semente, int ticks) throws IOException {
+        GameWorld world = new GameWorld(OfficeMap.criarEscritorioPadrao(), 960, 640, new Random(semente));
+        Random sorteio = new Random(99);
+        TickInput entrada = new TickInput();
+        try (ReplayRecorder gravador = new ReplayRecorder(arquivo, semente, HZ, 960, 640,
+                "", OfficeMap.hashConteudo(null))) {
+            for (int tick = 0; tick < ticks; tick++) {
+                if (tick % 20 == 0) {
+                    entrada.up = sorteio.nextBoolean();
+                    entrada.down = sorteio.nextBoolean();
+                    entrada.left = sorteio.nextBoolean();
+                    entrada.right = sorteio.nextBoolean();
+                    entrada.direcao = Player.Direction.values()[sorteio.nextInt(4)];
+                }
+                entrada.tiros = 0;
+                if (sorteio.nextInt(6) == 0) {
+                    entrada.adicionarTiro(sorteio.nextDouble() * 960, sorteio.nextDouble() * 640);
+                }
+                gravador.gravar(entrada);
+                entrada.aplicar(world);
+                world.atualizar(1.0 / HZ);
+            }
+        }
+        return world;
+    }
+
+    private static void lerTudo(Path arquivo) throws IOException {
+        try (ReplayReader replay = new ReplayReader(arquivo)) {
+            TickInput entrada = new TickInput();
+            while (replay.proximoTick(entrada)) {
+                // só lê
+            }
+        }
+    }
+
+    /**
+     * Lê o replay até o fim (ou até um limite de ticks, já que um número
+     * corrompido pode virar uma contagem de ticks enorme, mas válida).
+     * Qualquer exceção que não seja IOException falha o teste.
+     * @return a IOException lançada, ou null se a leitura terminou
+     */
+    private static IOException lerAteFalhar(Path arquivo) {
+        try (ReplayReader replay = new ReplayReader(arquivo)) {
+            TickInput entrada = new TickInput();
+            for (int tick = 0; tick < 100_000 && replay.proximoTick(entrada); tick++) {
+                assertTrue(entrada.tiros >= 0);
+            }
+            return null;
+        } catch (IOException e) {
+            assertTrue(e.getMessage() != null && !e.getMessage().isEmpty(), "IOException sem mensagem: " + e);
+            return e;
+        } catch (RuntimeException e) {
+            fail("Exceção inesperada ao ler " + arquivo, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe SpawnDirectorTest
+ * Ondas de inimigos pedidas ao {@link GameWorld}: criadas aos poucos,
+ * dentro do orçamento por tick e do limite de população, sempre em
+ * posições livres do mapa.
+ */
+class SpawnDirectorTest {
+
+    private static final double DELTA = 1.0 / 60.0;
+
+    @Test
+    void ondaRespeitaOrcamentoPorTickELimiteSemSobreporOMapa() {
+        GameWorld world = new GameWorld(OfficeMap.criarEscritorioPadrao(), 960, 640, new Random(3));
+        world.getPlayer().health = Integer.MAX_VALUE;
+        EnemyStore enemies = world.getInimigos();
+        SpawnDirector diretor = world.getDiretorSpawn();
+        int limite = enemies.size() + 300;
+        diretor.setMaxInimigos(limite);
+
+        world.solicitarOnda(500);
+
+        AABB caixa = new AABB();
+        double h = EnemyStore.HALF_SIZE;
+        for (int tick = 0; tick < 600; tick++) {
+            int antes = enemies.size();
+            world.atualizar(DELTA);
+            int criados = enemies.size() - antes;
+            assertTrue(criados <= diretor.getOrcamentoPorTick(),
+                    "tick " + tick + " criou " + criados + " inimigos");
+            assertTrue(enemies.size() <= limite, "limite de população ultrapassado no tick " + tick);
+            // Os spawns são o último passo do tick: os novos ainda estão onde nasceram
+            for (int i = antes; i < enemies.size(); i++) {
+                assertFalse(world.getOfficeMap().colide(caixa.setCentro(enemies.x[i], enemies.y[i], h, h)),
+                        "inimigo criado dentro de um objeto do mapa em " + enemies.x[i] + ", " + enemies.y[i]);
+            }
+        }
+
+        assertEquals(limite, enemies.size());
+        assertEquals(0, diretor.getInimigosPendentes());
+    }
+
+    @Test
+    void ondaEspalhadaPorVariosTicks() {
+        GameWorld world = new GameWorld(OfficeMap.criarEscritorioPadrao(), 960, 640, new Random(5));
+        world.getPlayer().health = Integer.MAX_VALUE;
+        int iniciais = world.getInimigos().size();
+
+        world.solicitarOnda(500);
+        world.atualizar(DELTA);
+
+        int criados = world.getInimigos().size() - iniciais;
+        assertTrue(criados > 0 && criados <= SpawnDirector.ORCAMENTO_PADRAO, "criados no primeiro tick: " + criados);
+        assertTrue(world.getDiretorSpawn().getInimigosPendentes() >= 500 - SpawnDirector.ORCAMENTO_PADRAO);
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.spyrun;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe SweptCollisionTest
+ * Casos de borda da colisão contínua: projéteis rápidos que
+ * atravessariam o alvo em um tick, trechos que já começam encostados,
+ * passagens tangentes e entidades paradas.
+ */
+class SweptCollisionTest {
+
+    private static final double SEM_IMPACTO = SweptCollision.SEM_IMPACTO;
+    private static final double EPS = 1e-9;
+
+    // Caixa usada nos testes contra caixa: (0, 0) a (10, 10)
+    private static final double MIN = 0, MAX = 10;
+
+    @Test
+    void circuloRapidoNaoAtravessaOAlvo() {
+        // Passa de um lado ao outro em um tick; as posições inicial e final estão longe do alvo
+        assertEquals(0.495, SweptCollision.circuloContraCirculo(-1000, 0, 1000, 0, 10), EPS);
+        // Na diagonal, com o alvo em (3, 0) (posição relativa a ele)
+        double t = SweptCollision.circuloContraCirculo(-500 - 3, -500, 500 - 3, 500, 5);
+        assertTrue(t > 0.49 && t < 0.5, "t = " + t);
+    }
+
+    @Test
+    void circuloQueComecaEncostadoDevolveZero() {
+        assertEquals(0, SweptCollision.circuloContraCirculo(3, 4, 100, 100, 6));
+        // Mesmo se afastando, o contato é no início
+        assertEquals(0, SweptCollision.circuloContraCirculo(1, 0, 50, 0, 2));
+    }
+
+    @Test
+    void circuloTangenteEncostaEOQuePassaPorForaNao() {
+        // Passa exatamente à distância do raio: contato no ponto mais próximo
+        assertEquals(0.5, SweptCollision.circuloContraCirculo(-10, 5, 10, 5, 5), EPS);
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCirculo(-10, 5.001, 10, 5.001, 5));
+    }
+
+    @Test
+    void circuloParado() {
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCirculo(20, 0, 20, 0, 5));
+        assertEquals(0, SweptCollision.circuloContraCirculo(2, 0, 2, 0, 5));
+    }
+
+    @Test
+    void circuloQueParaAntesOuSeAfastaNaoColide() {
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCirculo(-100, 0, -20, 0, 5));
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCirculo(20, 0, 100, 0, 5));
+    }
+
+    @Test
+    void caixaFinaNaoEAtravessadaEmAltaVelocidade() {
+        // Parede de 1 px de largura; a bala anda 1000 px no tick
+        double t = SweptCollision.circuloContraCaixa(-500, 5, 500, 5, 2, 0, 0, 1, 10);
+        assertEquals(0.498, t, EPS);
+        // Vindo de cima, na vertical
+        t = SweptCollision.circuloContraCaixa(5, -500, 5, 500, 2, MIN, MIN, MAX, MAX);
+        assertEquals(0.498, t, EPS);
+    }
+
+    @Test
+    void caixaQueComecaSobrepostaDevolveZero() {
+        // Centro dentro da caixa
+        assertEquals(0, SweptCollision.circuloContraCaixa(5, 5, 100, 100, 2, MIN, MIN, MAX, MAX));
+        // Centro fora, mas o círculo já encosta na face
+        assertEquals(0, SweptCollision.circuloContraCaixa(-1, 5, -100, 5, 2, MIN, MIN, MAX, MAX));
+        // Centro na região do canto, a menos de um raio dele
+        assertEquals(0, SweptCollision.circuloContraCaixa(-3, -3, -50, -50, 5, MIN, MIN, MAX, MAX));
+    }
+
+    @Test
+    void caixaTangenteAoLongoDaFace() {
+        // Desliza exatamente à distância do raio acima da face superior: encosta no canto (0, 10)
+        assertEquals(0.5, SweptCollision.circuloContraCaixa(-100, 12, 100, 12, 2, MIN, MIN, MAX, MAX), EPS);
+        // Um pouco mais longe não encosta
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCaixa(-100, 12.001, 100, 12.001, 2, MIN, MIN, MAX, MAX));
+    }
+
+    @Test
+    void caixaNoCantoUsaOCirculoDoCanto() {
+        // Na diagonal, a caixa expandida seria atingida antes do círculo do canto
+        double t = SweptCollision.circuloContraCaixa(-10, -10, 0, 0, 2, MIN, MIN, MAX, MAX);
+        double esperado = (Math.hypot(10, 10) - 2) / Math.hypot(10, 10);
+        assertEquals(esperado, t, EPS);
+        // Passa pela quina sem tocar o círculo do canto, embora cruze a caixa expandida
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCaixa(-2.5, -0.5, -0.5, -2.5, 2, MIN, MIN, MAX, MAX));
+    }
+
+    @Test
+    void caixaParada() {
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCaixa(20, 20, 20, 20, 2, MIN, MIN, MAX, MAX));
+        assertEquals(0, SweptCollision.circuloContraCaixa(11, 5, 11, 5, 2, MIN, MIN, MAX, MAX));
+        // Perto do canto, dentro da caixa expandida mas fora do círculo do canto
+        assertEquals(SEM_IMPACTO, SweptCollision.circuloContraCaixa(-1.8, -1.8, -1.8, -1.8, 2, MIN, MIN, MAX, MAX));
+    }
+}